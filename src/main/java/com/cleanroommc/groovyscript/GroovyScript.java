@@ -24,6 +24,7 @@ import com.cleanroommc.groovyscript.registry.ReloadableRegistryManager;
 import com.cleanroommc.groovyscript.sandbox.*;
 import com.cleanroommc.groovyscript.sandbox.mapper.GroovyDeobfMapper;
 import com.cleanroommc.groovyscript.sandbox.meta.GrSMetaClassCreationHandle;
+import com.cleanroommc.groovyscript.sandbox.transformer.ReflectionMetadataCache;
 import com.cleanroommc.groovyscript.server.GroovyScriptLanguageServerImpl;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -149,6 +150,7 @@ public class GroovyScript {
     @ApiStatus.Internal
     public static void initializeGroovyPreInit() {
         // called via mixin in between construction and fml pre init
+        ReflectionMetadataCache.load();
         ObjectMapperManager.init();
         StandardInfoParserRegistry.init();
         VanillaModule.initializeBinding();
@@ -174,6 +176,12 @@ public class GroovyScript {
         getSandbox().run(loadStage);
         time = System.currentTimeMillis() - time;
         LOGGER.info("Running Groovy scripts during {} took {} ms", loadStage.getName(), time);
+        GroovyLogImpl.LOG.flush();
+        long backpressure = GroovyLogImpl.LOG.getBackpressureCount();
+        if (backpressure > 0) {
+            LOGGER.info("Groovy log writer was full {} times", backpressure);
+        }
+        ReflectionMetadataCache.save();
         Loader.instance().setActiveModContainer(current);
         return time;
     }
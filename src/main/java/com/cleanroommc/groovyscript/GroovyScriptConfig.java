@@ -13,6 +13,18 @@ public class GroovyScriptConfig {
     @Config.Comment("Port for the VSC connection. Default: 25564")
     public static int languageServerPort = 25564;
 
+    @Config.Comment("If enabled, reloading scripts only undoes the registries touched by changed scripts and only runs the scripts which touched those registries again. Falls back to a full reload if scripts share state or scripts were added.")
+    public static boolean incrementalReload = false;
+
+    @Config.Comment("If enabled, crafting table recipes are looked up through an item index instead of testing every recipe. Can improve performance with many recipes and auto crafters.")
+    public static boolean craftingRecipeIndex = false;
+
+    @Config.Comment("If enabled, the time spent in each script and registry while loading scripts is recorded. The report is written next to the groovy log and summarised by /gs profile.")
+    public static boolean profileLoading = false;
+
+    @Config.Comment("If enabled, lines of the groovy log are written to the file by a background thread. This makes logging cheaper for scripts which log a lot. The log is fully written after each load stage and when the game exits.")
+    public static boolean asyncLog = false;
+
     public static Compat compat = new Compat();
 
     public static class Compat {
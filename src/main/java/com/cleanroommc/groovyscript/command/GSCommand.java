@@ -6,11 +6,14 @@ import com.cleanroommc.groovyscript.compat.mods.ModSupport;
 import com.cleanroommc.groovyscript.compat.mods.jei.JeiPlugin;
 import com.cleanroommc.groovyscript.compat.vanilla.VanillaModule;
 import com.cleanroommc.groovyscript.documentation.Documentation;
+import com.cleanroommc.groovyscript.event.GroovyEventManager;
 import com.cleanroommc.groovyscript.helper.StyleConstant;
 import com.cleanroommc.groovyscript.network.NetworkHandler;
 import com.cleanroommc.groovyscript.network.SReloadScripts;
 import com.cleanroommc.groovyscript.network.StartLanguageServerPacket;
+import com.cleanroommc.groovyscript.sandbox.ClosureExceptionTable;
 import com.cleanroommc.groovyscript.sandbox.GroovyLogImpl;
+import com.cleanroommc.groovyscript.sandbox.LoadProfiler;
 import com.cleanroommc.groovyscript.sandbox.LoadStage;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.creativetab.CreativeTabs;
@@ -24,7 +27,9 @@ import net.minecraftforge.server.command.CommandTreeBase;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.File;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
@@ -120,6 +125,72 @@ public class GSCommand extends CommandTreeBase {
             sender.sendMessage(new TextComponentString("Cleaned Groovy log").setStyle(StyleConstant.getSuccessStyle()));
         }));
 
+        addSubcommand(new SimpleCommand("closureErrors", "/gs closureErrors [clear]", (server, sender, args) -> {
+            ClosureExceptionTable table = GroovyScript.getSandbox().getClosureExceptions();
+            if (hasArgument(args, "clear")) {
+                table.clear();
+                sender.sendMessage(new TextComponentString("Cleared closure exception counters").setStyle(StyleConstant.getSuccessStyle()));
+                return;
+            }
+            List<ClosureExceptionTable.Entry> entries = table.getEntries();
+            if (entries.isEmpty()) {
+                sender.sendMessage(new TextComponentString("No closure exceptions occurred").setStyle(StyleConstant.getSuccessStyle()));
+                return;
+            }
+            GroovyLog.get().info("Closure exceptions:");
+            for (ClosureExceptionTable.Entry entry : entries) {
+                GroovyLog.get().getWriter().println(" - " + entry.getCount() + "x " + entry.getType() + " at " + entry.getLocation() + ": " + entry.getMessage());
+            }
+            if (table.getUntrackedCount() > 0) {
+                GroovyLog.get().getWriter().println(" - " + table.getUntrackedCount() + "x untracked, because too many different exceptions occurred");
+            }
+            sender.sendMessage(
+                    new TextComponentString(entries.size() + " different closure exceptions have been logged to the ").appendSibling(
+                            GSCommand.getTextForFile(
+                                    "Groovy Log",
+                                    GroovyLog.get().getLogFilePath().toString(),
+                                    new TextComponentString("Click to open GroovyScript log"))));
+        }));
+
+        addSubcommand(new SimpleCommand("profile", (server, sender, args) -> {
+            if (!LoadProfiler.isEnabled()) {
+                sender.sendMessage(new TextComponentString("Load profiling is disabled. Enable 'profileLoading' in the config and reload.").setStyle(StyleConstant.getErrorStyle()));
+                return;
+            }
+            List<String> summary = LoadProfiler.summarize(5);
+            if (summary.isEmpty()) {
+                sender.sendMessage(new TextComponentString("No scripts were profiled yet").setStyle(StyleConstant.getErrorStyle()));
+                return;
+            }
+            for (String line : summary) {
+                sender.sendMessage(new TextComponentString(line));
+            }
+            sender.sendMessage(
+                    new TextComponentString("The full report has been written to ").appendSibling(
+                            GSCommand.getTextForFile(
+                                    LoadProfiler.REPORT_NAME + ".json",
+                                    LoadProfiler.getReportFile(".json").toString(),
+                                    new TextComponentString("Click to open the load profile"))));
+        }));
+
+        addSubcommand(new SimpleCommand("events", (server, sender, args) -> {
+            List<GroovyEventManager.EventListener> listeners = new ArrayList<>(GroovyEventManager.INSTANCE.getListeners());
+            listeners.sort(Comparator.comparingLong(GroovyEventManager.EventListener::getTotalNanos).reversed());
+            GroovyLog.get().info("Event listeners:");
+            for (GroovyEventManager.EventListener listener : listeners) {
+                long invocations = listener.getInvocations();
+                double totalMs = listener.getTotalNanos() / 1_000_000.0;
+                double averageUs = invocations == 0 ? 0 : listener.getTotalNanos() / 1_000.0 / invocations;
+                GroovyLog.get().getWriter().printf(" - %s in %s: %d calls, %.2fms total, %.2fus average%n", listener.getEventClass().getName(), listener.getSource(), invocations, totalMs, averageUs);
+            }
+            sender.sendMessage(
+                    new TextComponentString(listeners.size() + " event listeners have been logged to the ").appendSibling(
+                            GSCommand.getTextForFile(
+                                    "Groovy Log",
+                                    GroovyLog.get().getLogFilePath().toString(),
+                                    new TextComponentString("Click to open GroovyScript log"))));
+        }));
+
         if (ModSupport.MEKANISM.isLoaded()) {
             addSubcommand(new GSMekanismCommand());
         }
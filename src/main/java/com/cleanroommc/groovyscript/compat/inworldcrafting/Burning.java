@@ -22,7 +22,7 @@ public class Burning extends StandardListRegistry<Burning.BurningRecipe> {
 
     private static final Map<EntityItem, BurningRecipe> runningRecipes = new Object2ObjectOpenHashMap<>();
 
-    private final List<BurningRecipe> burningRecipes = new ArrayList<>();
+    private final IndexedRecipeList<BurningRecipe> burningRecipes = new IndexedRecipeList<>(BurningRecipe::getInput);
 
     @Optional.Method(modid = "jei")
     @GroovyBlacklist
@@ -39,6 +39,7 @@ public class Burning extends StandardListRegistry<Burning.BurningRecipe> {
     public void afterScriptLoad() {
         super.afterScriptLoad();
         this.burningRecipes.sort(Comparator.comparingInt(BurningRecipe::getTicks));
+        this.burningRecipes.rebuildIndex();
     }
 
     public RecipeBuilder recipeBuilder() {
@@ -120,7 +121,7 @@ public class Burning extends StandardListRegistry<Burning.BurningRecipe> {
         BurningRecipe burningRecipe = runningRecipes.get(entityItem);
         if (burningRecipe != null) return burningRecipe;
         ItemStack itemStack = entityItem.getItem();
-        for (BurningRecipe burningRecipe1 : this.burningRecipes) {
+        for (BurningRecipe burningRecipe1 : this.burningRecipes.getCandidates(itemStack)) {
             if (burningRecipe1.isValidInput(entityItem, itemStack)) {
                 runningRecipes.put(entityItem, burningRecipe1);
                 return burningRecipe1;
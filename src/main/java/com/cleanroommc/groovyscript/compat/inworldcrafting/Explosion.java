@@ -16,14 +16,13 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraftforge.fml.common.Optional;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class Explosion extends StandardListRegistry<Explosion.ExplosionRecipe> {
 
-    private final List<ExplosionRecipe> explosionRecipes = new ArrayList<>();
+    private final IndexedRecipeList<ExplosionRecipe> explosionRecipes = new IndexedRecipeList<>(ExplosionRecipe::getInput);
 
     @Optional.Method(modid = "jei")
     @GroovyBlacklist
@@ -36,6 +35,12 @@ public class Explosion extends StandardListRegistry<Explosion.ExplosionRecipe> {
         return this.explosionRecipes;
     }
 
+    @Override
+    public void afterScriptLoad() {
+        super.afterScriptLoad();
+        this.explosionRecipes.rebuildIndex();
+    }
+
     public RecipeBuilder recipeBuilder() {
         return new RecipeBuilder();
     }
@@ -141,7 +146,7 @@ public class Explosion extends StandardListRegistry<Explosion.ExplosionRecipe> {
     @GroovyBlacklist
     public void findAndRunRecipe(EntityItem entityItem) {
         ItemStack itemStack = entityItem.getItem();
-        for (ExplosionRecipe explosionRecipe : this.explosionRecipes) {
+        for (ExplosionRecipe explosionRecipe : this.explosionRecipes.getCandidates(itemStack)) {
             if (explosionRecipe.tryRecipe(entityItem, itemStack)) {
                 return;
             }
@@ -4,14 +4,17 @@ import com.cleanroommc.groovyscript.GroovyScript;
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.cleanroommc.groovyscript.api.GroovyLog;
 import com.cleanroommc.groovyscript.api.IIngredient;
+import com.cleanroommc.groovyscript.helper.ingredient.OreDictMembership;
 import com.cleanroommc.groovyscript.helper.recipe.AbstractRecipeBuilder;
 import com.cleanroommc.groovyscript.sandbox.ClosureHelper;
 import groovy.lang.Closure;
 import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import it.unimi.dsi.fastutil.HashCommon;
 import it.unimi.dsi.fastutil.floats.FloatList;
 import it.unimi.dsi.fastutil.ints.IntOpenHashSet;
 import it.unimi.dsi.fastutil.ints.IntSet;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import mezz.jei.api.ingredients.IIngredients;
 import net.minecraft.block.Block;
 import net.minecraft.block.BlockLiquid;
@@ -19,6 +22,7 @@ import net.minecraft.block.material.Material;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityItem;
+import net.minecraft.item.Item;
 import net.minecraft.item.ItemStack;
 import net.minecraft.util.math.AxisAlignedBB;
 import net.minecraft.util.math.BlockPos;
@@ -34,6 +38,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Consumer;
 import java.util.function.Predicate;
@@ -43,14 +48,19 @@ public abstract class FluidRecipe {
     public static final int MAX_ITEM_INPUT = 9;
 
     private static final Map<String, List<FluidRecipe>> fluidRecipes = new Object2ObjectOpenHashMap<>();
+    private static final Map<String, InputFilter> inputFilters = new Object2ObjectOpenHashMap<>();
+    // counts items entering fluid blocks, hashed by position, collisions only cause extra attempts
+    private static final int[] itemsEntered = new int[4096];
 
     public static void add(FluidRecipe fluidRecipe) {
         fluidRecipes.computeIfAbsent(fluidRecipe.input.getName(), key -> new ArrayList<>()).add(fluidRecipe);
+        inputFilters.clear();
     }
 
     public static boolean remove(FluidRecipe fluidRecipe) {
         List<FluidRecipe> fluidRecipes1 = fluidRecipes.get(fluidRecipe.input.getName());
         if (fluidRecipes1 != null) {
+            inputFilters.clear();
             return fluidRecipes1.remove(fluidRecipe);
         }
         return false;
@@ -67,6 +77,7 @@ public abstract class FluidRecipe {
     }
 
     public static boolean removeIf(Fluid fluid, Predicate<FluidRecipe> fluidRecipePredicate, Consumer<FluidRecipe> removedConsumer) {
+        inputFilters.clear();
         List<FluidRecipe> recipes = fluidRecipes.get(fluid.getName());
         return recipes != null && recipes.removeIf(fluidRecipe -> {
             if (fluidRecipePredicate.test(fluidRecipe)) {
@@ -78,6 +89,7 @@ public abstract class FluidRecipe {
     }
 
     public static boolean removeIf(Predicate<FluidRecipe> fluidRecipePredicate, Consumer<FluidRecipe> removedConsumer) {
+        inputFilters.clear();
         AtomicBoolean successful = new AtomicBoolean(false);
         fluidRecipes.forEach((fluid, fluidRecipes1) -> {
             if (fluidRecipes1.removeIf(fluidRecipe -> {
@@ -97,6 +109,50 @@ public abstract class FluidRecipe {
         fluidRecipes.values().forEach(list -> list.forEach(consumer));
     }
 
+    /**
+     * Returns a filter which rejects items which can't be part of any recipe of the fluid. The filter is replaced by a new instance when
+     * the recipes or the ore dictionary are modified.
+     *
+     * @param fluid input fluid
+     * @return the filter or null if there are no recipes for the fluid
+     */
+    @GroovyBlacklist
+    public static @Nullable InputFilter getInputFilter(Fluid fluid) {
+        InputFilter filter = inputFilters.get(fluid.getName());
+        // ore dict ingredients may match other items now
+        if (filter == null || filter.oreGeneration != OreDictMembership.getGeneration()) {
+            List<FluidRecipe> candidates = fluidRecipes.get(fluid.getName());
+            if (candidates == null || candidates.isEmpty()) return null;
+            filter = new InputFilter(candidates);
+            inputFilters.put(fluid.getName(), filter);
+        }
+        return filter;
+    }
+
+    /**
+     * Called when an item which may be part of a recipe entered a fluid block. Other items in the block which already failed to run a
+     * recipe need to try again, since the new item might complete a recipe.
+     *
+     * @param pos pos of the fluid block
+     */
+    @GroovyBlacklist
+    public static void onItemEntered(BlockPos pos) {
+        itemsEntered[getEnteredIndex(pos)]++;
+    }
+
+    /**
+     * @param pos pos of the fluid block
+     * @return a number which changes every time an item enters the fluid block
+     */
+    @GroovyBlacklist
+    public static int getItemsEntered(BlockPos pos) {
+        return itemsEntered[getEnteredIndex(pos)];
+    }
+
+    private static int getEnteredIndex(BlockPos pos) {
+        return HashCommon.mix(Long.hashCode(pos.toLong())) & (itemsEntered.length - 1);
+    }
+
     /**
      * Tries to find a fluid conversion recipe for a fluid at a position in the world
      *
@@ -248,6 +304,45 @@ public abstract class FluidRecipe {
         return blockState.getValue(BlockFluidBase.LEVEL) == 0;
     }
 
+    /**
+     * Knows all items which can be part of a recipe of a fluid. Each item bound input of each recipe is indexed, so every item which a
+     * recipe needs tries the recipes when it is in the fluid block. If a recipe has an input which isn't bound to items, all items are
+     * accepted.
+     */
+    public static final class InputFilter {
+
+        private final Set<Item> items = new ReferenceOpenHashSet<>();
+        private final int oreGeneration = OreDictMembership.getGeneration();
+        private boolean acceptsAll;
+        private boolean hasStartCondition;
+
+        private InputFilter(List<FluidRecipe> recipes) {
+            for (FluidRecipe recipe : recipes) {
+                if (recipe.startCondition != null) this.hasStartCondition = true;
+                for (IIngredient input : recipe.itemInputs) {
+                    if (!IndexedRecipeList.isItemBound(input)) {
+                        this.acceptsAll = true;
+                        continue;
+                    }
+                    for (ItemStack stack : input.getMatchingStacks()) {
+                        this.items.add(stack.getItem());
+                    }
+                }
+            }
+        }
+
+        public boolean accepts(ItemStack stack) {
+            return this.acceptsAll || this.items.contains(stack.getItem());
+        }
+
+        /**
+         * Start conditions can depend on anything in the world, so recipes with them need to be tried every tick.
+         */
+        public boolean hasStartCondition() {
+            return hasStartCondition;
+        }
+    }
+
     private static class ItemContainer {
 
         private final EntityItem entityItem;
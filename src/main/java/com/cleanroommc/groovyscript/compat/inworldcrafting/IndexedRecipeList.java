@@ -0,0 +1,80 @@
+package com.cleanroommc.groovyscript.compat.inworldcrafting;
+
+import com.cleanroommc.groovyscript.api.IIngredient;
+import com.cleanroommc.groovyscript.helper.ingredient.ItemsIngredient;
+import com.cleanroommc.groovyscript.helper.ingredient.OreDictIngredient;
+import com.cleanroommc.groovyscript.helper.ingredient.OreDictMembership;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * A recipe list of an in world crafting registry which also maps items to the recipes their input might match.
+ * <p>
+ * Looking up the candidates of an item is a single map lookup. Items which can't match any recipe share an empty list, so most item
+ * entities are rejected without testing a single recipe. Candidates keep the order of this list. The index is rebuilt on the next lookup
+ * after the list or the ore dictionary was modified.
+ *
+ * @param <R> recipe type
+ */
+class IndexedRecipeList<R> extends ArrayList<R> {
+
+    private final Function<R, IIngredient> inputGetter;
+    private Map<Item, List<R>> index;
+    // recipes which may match items outside their matching stacks
+    private List<R> unindexed;
+    private int indexedModCount = -1;
+    private int indexedOreGeneration;
+
+    IndexedRecipeList(Function<R, IIngredient> inputGetter) {
+        this.inputGetter = inputGetter;
+    }
+
+    /**
+     * @param stack input item
+     * @return all recipes in list order which might accept the item
+     */
+    List<R> getCandidates(ItemStack stack) {
+        if (isEmpty() || stack.isEmpty()) return Collections.emptyList();
+        if (this.indexedModCount != this.modCount || this.indexedOreGeneration != OreDictMembership.getGeneration()) rebuildIndex();
+        return this.index.getOrDefault(stack.getItem(), this.unindexed);
+    }
+
+    void rebuildIndex() {
+        Map<Item, List<R>> index = new Reference2ObjectOpenHashMap<>();
+        List<R> unindexed = new ArrayList<>();
+        for (R recipe : this) {
+            IIngredient input = this.inputGetter.apply(recipe);
+            if (!isItemBound(input)) {
+                // add to all buckets and to the fallback list to keep the list order
+                unindexed.add(recipe);
+                index.values().forEach(recipes -> recipes.add(recipe));
+                continue;
+            }
+            for (ItemStack stack : input.getMatchingStacks()) {
+                List<R> recipes = index.computeIfAbsent(stack.getItem(), k -> new ArrayList<>(unindexed));
+                // an ingredient may have multiple stacks of the same item
+                if (recipes.isEmpty() || recipes.get(recipes.size() - 1) != recipe) {
+                    recipes.add(recipe);
+                }
+            }
+        }
+        this.index = index;
+        this.unindexed = unindexed.isEmpty() ? Collections.emptyList() : unindexed;
+        this.indexedModCount = this.modCount;
+        this.indexedOreGeneration = OreDictMembership.getGeneration();
+    }
+
+    /**
+     * Only ingredients which never match items outside their matching stacks can be indexed.
+     */
+    static boolean isItemBound(IIngredient ingredient) {
+        return ((Object) ingredient instanceof ItemStack stack && !stack.isEmpty()) || ingredient instanceof OreDictIngredient || ingredient instanceof ItemsIngredient;
+    }
+}
@@ -16,7 +16,6 @@ import net.minecraft.util.math.MathHelper;
 import net.minecraftforge.fml.common.Optional;
 import org.jetbrains.annotations.Nullable;
 
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
@@ -24,7 +23,7 @@ import java.util.stream.Collectors;
 
 public class PistonPush extends StandardListRegistry<PistonPush.PistonPushRecipe> {
 
-    private final List<PistonPushRecipe> pistonPushRecipes = new ArrayList<>();
+    private final IndexedRecipeList<PistonPushRecipe> pistonPushRecipes = new IndexedRecipeList<>(PistonPushRecipe::getInput);
 
     @Optional.Method(modid = "jei")
     @GroovyBlacklist
@@ -37,6 +36,12 @@ public class PistonPush extends StandardListRegistry<PistonPush.PistonPushRecipe
         return this.pistonPushRecipes;
     }
 
+    @Override
+    public void afterScriptLoad() {
+        super.afterScriptLoad();
+        this.pistonPushRecipes.rebuildIndex();
+    }
+
     public RecipeBuilder recipeBuilder() {
         return new RecipeBuilder();
     }
@@ -139,7 +144,7 @@ public class PistonPush extends StandardListRegistry<PistonPush.PistonPushRecipe
     @GroovyBlacklist
     public void findAndRunRecipe(Consumer<EntityItem> entitySpawner, EntityItem entityItem, IBlockState pushingAgainst) {
         ItemStack itemStack = entityItem.getItem();
-        for (PistonPushRecipe pistonPushRecipe : this.pistonPushRecipes) {
+        for (PistonPushRecipe pistonPushRecipe : this.pistonPushRecipes.getCandidates(itemStack)) {
             if (pistonPushRecipe.tryRecipe(entitySpawner, entityItem, itemStack, pushingAgainst)) {
                 return;
             }
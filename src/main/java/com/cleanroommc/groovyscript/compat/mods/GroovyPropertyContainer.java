@@ -4,6 +4,7 @@ import com.cleanroommc.groovyscript.GroovyScript;
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.cleanroommc.groovyscript.api.GroovyLog;
 import com.cleanroommc.groovyscript.api.INamed;
+import com.cleanroommc.groovyscript.sandbox.LoadProfiler;
 import com.cleanroommc.groovyscript.sandbox.expand.ExpansionHelper;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import org.jetbrains.annotations.ApiStatus;
@@ -28,7 +29,12 @@ public class GroovyPropertyContainer {
                 // old property is replaced, sometimes this is intended
                 GroovyLog.get().warn("Property {} was replaced with property {} in class {}!", old.getName(), alias, getClass());
             }
-            ExpansionHelper.mixinConstProperty(getClass(), alias, property, i++ > 0);
+            // scripts accessing the property are tracked to find out which scripts need to run again on reload
+            ExpansionHelper.mixinProperty(getClass(), alias, (Class<INamed>) property.getClass(), () -> {
+                if (GroovyScript.isSandboxLoaded()) GroovyScript.getSandbox().getReloadTracker().onAccess(property);
+                LoadProfiler.onRegistryAccess(property);
+                return property;
+            }, null, i++ > 0);
         }
     }
 
@@ -1,8 +1,12 @@
 package com.cleanroommc.groovyscript.compat.vanilla;
 
+import com.cleanroommc.groovyscript.GroovyScript;
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.cleanroommc.groovyscript.api.GroovyLog;
 import com.cleanroommc.groovyscript.api.IIngredient;
+import com.cleanroommc.groovyscript.api.documentation.annotations.Example;
+import com.cleanroommc.groovyscript.api.documentation.annotations.MethodDescription;
+import com.cleanroommc.groovyscript.helper.SimpleObjectStream;
 import com.cleanroommc.groovyscript.helper.ingredient.IngredientHelper;
 import com.cleanroommc.groovyscript.registry.ForgeRegistryWrapper;
 import com.cleanroommc.groovyscript.registry.ReloadableRegistryManager;
@@ -11,14 +15,16 @@ import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
+import org.jetbrains.annotations.ApiStatus;
 
-import java.util.ArrayList;
 import java.util.List;
 
 public class Crafting extends ForgeRegistryWrapper<IRecipe> {
 
     private static final Char2ObjectOpenHashMap<IIngredient> fallbackChars = new Char2ObjectOpenHashMap<>();
 
+    private final CraftingRemovalQueue removalQueue = new CraftingRemovalQueue();
+
     public Crafting() {
         super(ForgeRegistries.RECIPES);
     }
@@ -152,24 +158,7 @@ public class Crafting extends ForgeRegistryWrapper<IRecipe> {
             }
             return;
         }
-        List<ResourceLocation> recipesToRemove = new ArrayList<>();
-        for (IRecipe recipe : ForgeRegistries.RECIPES) {
-            if (recipe.getRegistryName() != null && output.test(recipe.getRecipeOutput())) {
-                recipesToRemove.add(recipe.getRegistryName());
-            }
-        }
-        if (recipesToRemove.isEmpty()) {
-            if (log) {
-                GroovyLog.msg("Error removing Minecraft Crafting recipe")
-                        .add("No recipes found for {}", output)
-                        .error()
-                        .post();
-            }
-            return;
-        }
-        for (ResourceLocation rl : recipesToRemove) {
-            ReloadableRegistryManager.removeRegistryEntry(ForgeRegistries.RECIPES, rl);
-        }
+        queueRemoval(output, true, log);
     }
 
     public void removeByInput(IIngredient input) {
@@ -186,26 +175,58 @@ public class Crafting extends ForgeRegistryWrapper<IRecipe> {
             }
             return;
         }
-        List<ResourceLocation> recipesToRemove = new ArrayList<>();
-        for (IRecipe recipe : ForgeRegistries.RECIPES) {
-            if (recipe.getRegistryName() != null && !recipe.getIngredients().isEmpty() && recipe.getIngredients().stream().anyMatch(i -> i.getMatchingStacks().length > 0 && input.test(i.getMatchingStacks()[0]))) {
-                recipesToRemove.add(recipe.getRegistryName());
-            }
-        }
-        if (recipesToRemove.isEmpty()) {
-            if (log) {
-                GroovyLog.msg("Error removing Minecraft Crafting recipe")
-                        .add("No recipes found for {}", input)
-                        .error()
-                        .post();
-            }
-            return;
-        }
-        for (ResourceLocation location : recipesToRemove) {
-            ReloadableRegistryManager.removeRegistryEntry(ForgeRegistries.RECIPES, location);
+        queueRemoval(input, false, log);
+    }
+
+    private void queueRemoval(IIngredient ingredient, boolean byOutput, boolean log) {
+        ReloadableRegistryManager.onRegistryModified(ForgeRegistries.RECIPES);
+        this.removalQueue.add(ingredient, byOutput, log);
+        // removals are only deferred while a load stage runs, since nothing would flush them otherwise
+        // closures like event listeners also mark the sandbox as running, but their removals must happen immediately
+        if (!GroovyScript.isSandboxLoaded() || GroovyScript.getSandbox().getCurrentLoader() == null) {
+            this.removalQueue.flush();
         }
     }
 
+    /**
+     * Executes all queued removals by output and by input. Called before the recipe registry is read or modified.
+     */
+    @GroovyBlacklist
+    @ApiStatus.Internal
+    public void flushPendingRemovals() {
+        this.removalQueue.flush();
+    }
+
+    /**
+     * Executes all queued removals and discards the recipe index. Called after scripts ran.
+     */
+    @GroovyBlacklist
+    @ApiStatus.Internal
+    public void finishPendingRemovals() {
+        this.removalQueue.flush();
+        this.removalQueue.invalidate();
+    }
+
+    @GroovyBlacklist
+    @ApiStatus.Internal
+    public void onRecipeAdded(IRecipe recipe) {
+        this.removalQueue.onRecipeAdded(recipe);
+    }
+
+    @Override
+    @MethodDescription(priority = 2000, example = @Example(commented = true))
+    public void removeAll() {
+        flushPendingRemovals();
+        super.removeAll();
+    }
+
+    @Override
+    @MethodDescription(type = MethodDescription.Type.QUERY)
+    public SimpleObjectStream<IRecipe> streamRecipes() {
+        flushPendingRemovals();
+        return super.streamRecipes();
+    }
+
     public CraftingRecipeBuilder.Shaped shapedBuilder() {
         return new CraftingRecipeBuilder.Shaped();
     }
@@ -13,14 +13,17 @@ import net.minecraft.inventory.Slot;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.item.crafting.Ingredient;
+import net.minecraft.nbt.NBTTagCompound;
 import net.minecraft.util.NonNullList;
 import net.minecraft.world.World;
 import net.minecraftforge.registries.IForgeRegistryEntry;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.lang.ref.WeakReference;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 
 public abstract class CraftingRecipe extends IForgeRegistryEntry.Impl<IRecipe> implements IRecipe, ICraftingRecipe {
 
@@ -29,6 +32,7 @@ public abstract class CraftingRecipe extends IForgeRegistryEntry.Impl<IRecipe> i
     private final NonNullList<Ingredient> ingredients;
     protected final @Nullable Closure<ItemStack> recipeFunction;
     protected final @Nullable Closure<Void> recipeAction;
+    private volatile MatchCache matchCache;
 
     public CraftingRecipe(ItemStack output, List<IIngredient> input, @Nullable Closure<ItemStack> recipeFunction, @Nullable Closure<Void> recipeAction) {
         this.output = output;
@@ -51,7 +55,7 @@ public abstract class CraftingRecipe extends IForgeRegistryEntry.Impl<IRecipe> i
         if (recipeFunction == null || input.isEmpty()) return output;
 
         InputList inputs = new InputList();
-        for (SlotMatchResult slotMatchResult : getMatchingList(inv)) {
+        for (SlotMatchResult slotMatchResult : getCachedMatchingList(inv)) {
             ItemStack givenInput = slotMatchResult.getGivenInput();
             inputs.add(givenInput);
         }
@@ -88,7 +92,7 @@ public abstract class CraftingRecipe extends IForgeRegistryEntry.Impl<IRecipe> i
     @Override
     public @NotNull NonNullList<ItemStack> getRemainingItems(@NotNull InventoryCrafting inv) {
         NonNullList<ItemStack> result = NonNullList.withSize(inv.getSizeInventory(), ItemStack.EMPTY);
-        for (SlotMatchResult matchResult : getMatchingList(inv)) {
+        for (SlotMatchResult matchResult : getCachedMatchingList(inv)) {
             ItemStack input = matchResult.getGivenInput();
             ItemStack remainder = matchResult.getRecipeIngredient().applyTransform(input.copy());
             if (remainder == null) remainder = ItemStack.EMPTY;
@@ -102,11 +106,83 @@ public abstract class CraftingRecipe extends IForgeRegistryEntry.Impl<IRecipe> i
 
     @Override
     public boolean matches(@NotNull InventoryCrafting inv, @NotNull World worldIn) {
-        return !getMatchingList(inv).isEmpty();
+        // without a recipe function the match list is only needed for the remaining items, so don't create it here
+        if (this.recipeFunction == null && this.recipeAction == null) return hasMatch(inv);
+        return !getCachedMatchingList(inv).isEmpty();
     }
 
     public abstract @NotNull MatchList getMatchingList(InventoryCrafting inv);
 
+    /**
+     * Checks if the inventory matches this recipe without creating a {@link MatchList}.
+     * Must return the same as {@code !getMatchingList(inv).isEmpty()}.
+     *
+     * @param inv crafting inventory to check
+     * @return if the inventory matches this recipe
+     */
+    protected boolean hasMatch(InventoryCrafting inv) {
+        return !getMatchingList(inv).isEmpty();
+    }
+
+    /**
+     * Returns the match list of the last call if the inventory didn't change since then.
+     * A single craft needs the match list multiple times for the same inventory.
+     *
+     * @param inv crafting inventory to match
+     * @return the match list for the inventory
+     */
+    protected @NotNull MatchList getCachedMatchingList(InventoryCrafting inv) {
+        MatchCache cache = this.matchCache;
+        if (cache != null && cache.isValid(inv)) return cache.matches;
+        MatchList matches = getMatchingList(inv);
+        this.matchCache = new MatchCache(inv, matches);
+        return matches;
+    }
+
+    /**
+     * A match list together with a snapshot of the inventory it was created for.
+     */
+    private static class MatchCache {
+
+        private final WeakReference<InventoryCrafting> inventory;
+        private final ItemStack[] stacks;
+        private final int[] counts;
+        private final int[] metas;
+        private final NBTTagCompound[] tags;
+        private final MatchList matches;
+
+        private MatchCache(InventoryCrafting inv, MatchList matches) {
+            this.inventory = new WeakReference<>(inv);
+            this.matches = matches;
+            int size = inv.getSizeInventory();
+            this.stacks = new ItemStack[size];
+            this.counts = new int[size];
+            this.metas = new int[size];
+            this.tags = new NBTTagCompound[size];
+            for (int i = 0; i < size; i++) {
+                ItemStack stack = inv.getStackInSlot(i);
+                this.stacks[i] = stack;
+                this.counts[i] = stack.getCount();
+                this.metas[i] = stack.getMetadata();
+                // tags may be modified in place as well, so store a copy of the content
+                NBTTagCompound tag = stack.getTagCompound();
+                this.tags[i] = tag == null ? null : tag.copy();
+            }
+        }
+
+        private boolean isValid(InventoryCrafting inv) {
+            if (this.inventory.get() != inv || inv.getSizeInventory() != this.stacks.length) return false;
+            for (int i = 0; i < this.stacks.length; i++) {
+                ItemStack stack = inv.getStackInSlot(i);
+                // stacks may be modified in place, so compare more than the reference
+                if (stack != this.stacks[i] || stack.getCount() != this.counts[i] || stack.getMetadata() != this.metas[i] || !Objects.equals(stack.getTagCompound(), this.tags[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
     /**
      * Contains information about a inventory that was matched against a recipe.
      * The triples contain:
@@ -0,0 +1,180 @@
+package com.cleanroommc.groovyscript.compat.vanilla;
+
+import com.cleanroommc.groovyscript.GroovyScriptConfig;
+import com.cleanroommc.groovyscript.api.IIngredient;
+import com.cleanroommc.groovyscript.helper.ingredient.ItemsIngredient;
+import com.cleanroommc.groovyscript.helper.ingredient.OreDictIngredient;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraft.item.crafting.ShapedRecipes;
+import net.minecraft.item.crafting.ShapelessRecipes;
+import net.minecraft.world.World;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+import net.minecraftforge.oredict.OreIngredient;
+import net.minecraftforge.oredict.ShapedOreRecipe;
+import net.minecraftforge.oredict.ShapelessOreRecipe;
+import net.minecraftforge.registries.ForgeRegistry;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.*;
+
+/**
+ * An index of crafting table recipes which narrows down the recipes which are tested against a crafting grid.
+ * <p>
+ * Every recipe of a known type is stored in a bucket for each item its most selective ingredient accepts. A grid can only match a
+ * recipe if it contains one of those items. Recipes of unknown types or with ingredients which may accept items outside their matching
+ * stacks are always tested. Candidates are tested in registry order, so the first matching recipe is the same as without the index.
+ * <p>
+ * The index is rebuilt lazily when the recipe registry changed or scripts ran. The last matched recipe of each crafting inventory is
+ * tested first, so only the candidates before it need to be tested if it still matches.
+ */
+@ApiStatus.Internal
+public final class CraftingRecipeIndex {
+
+    private static final Set<Class<?>> INDEXED_RECIPES = new ReferenceOpenHashSet<>(Arrays.asList(ShapedRecipes.class, ShapelessRecipes.class, ShapedOreRecipe.class, ShapelessOreRecipe.class, ShapedCraftingRecipe.class, ShapelessCraftingRecipe.class));
+
+    private static final Map<InventoryCrafting, IRecipe> lastMatch = Collections.synchronizedMap(new WeakHashMap<>());
+    private static volatile Index index;
+
+    private CraftingRecipeIndex() {}
+
+    public static boolean isEnabled() {
+        return GroovyScriptConfig.craftingRecipeIndex;
+    }
+
+    /**
+     * Called when the recipe registry or the ore dictionary was modified.
+     */
+    public static void invalidate() {
+        index = null;
+    }
+
+    /**
+     * Finds the first recipe in registry order which matches the crafting grid.
+     *
+     * @return the matching recipe or null if no recipe matches
+     */
+    public static @Nullable IRecipe findMatchingRecipe(InventoryCrafting inv, World world) {
+        ForgeRegistry<IRecipe> registry = (ForgeRegistry<IRecipe>) ForgeRegistries.RECIPES;
+        Index index = getIndex(registry);
+        IRecipe last = lastMatch.get(inv);
+        int lastId = last == null ? -1 : registry.getID(last);
+        if (lastId >= 0 && (registry.getValue(lastId) != last || !last.matches(inv, world))) lastId = -1;
+        for (int id : index.getCandidates(inv)) {
+            // the last match is only the first match if no recipe before it matches
+            if (lastId >= 0 && id >= lastId) return last;
+            IRecipe recipe = registry.getValue(id);
+            if (recipe != null && recipe.matches(inv, world)) {
+                lastMatch.put(inv, recipe);
+                return recipe;
+            }
+        }
+        if (lastId >= 0) return last;
+        lastMatch.remove(inv);
+        return null;
+    }
+
+    private static Index getIndex(ForgeRegistry<IRecipe> registry) {
+        Index index = CraftingRecipeIndex.index;
+        if (index == null) {
+            synchronized (CraftingRecipeIndex.class) {
+                index = CraftingRecipeIndex.index;
+                if (index == null) {
+                    index = new Index(registry);
+                    lastMatch.clear();
+                    CraftingRecipeIndex.index = index;
+                }
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Returns the items of the most selective ingredient of the recipe or null if the recipe can't be indexed.
+     */
+    private static @Nullable Set<Item> getKeyItems(IRecipe recipe) {
+        if (!INDEXED_RECIPES.contains(recipe.getClass())) return null;
+        Set<Item> best = null;
+        if (recipe instanceof CraftingRecipe craftingRecipe) {
+            for (IIngredient ingredient : craftingRecipe.input) {
+                if (!isItemBound(ingredient)) continue;
+                best = selectMoreSelective(best, ingredient.getMatchingStacks());
+            }
+        } else {
+            for (Ingredient ingredient : recipe.getIngredients()) {
+                if (ingredient == Ingredient.EMPTY || (ingredient.getClass() != Ingredient.class && ingredient.getClass() != OreIngredient.class)) {
+                    continue;
+                }
+                best = selectMoreSelective(best, ingredient.getMatchingStacks());
+            }
+        }
+        return best;
+    }
+
+    private static boolean isItemBound(IIngredient ingredient) {
+        return ((Object) ingredient instanceof ItemStack stack && !stack.isEmpty()) || ingredient instanceof OreDictIngredient || ingredient instanceof ItemsIngredient;
+    }
+
+    private static Set<Item> selectMoreSelective(@Nullable Set<Item> best, ItemStack[] stacks) {
+        if (stacks.length == 0) return best;
+        Set<Item> items = new ReferenceOpenHashSet<>();
+        for (ItemStack stack : stacks) {
+            items.add(stack.getItem());
+        }
+        return best == null || items.size() < best.size() ? items : best;
+    }
+
+    private static class Index {
+
+        private final Map<Item, int[]> buckets = new Reference2ObjectOpenHashMap<>();
+        private final int[] unindexed;
+
+        private Index(ForgeRegistry<IRecipe> registry) {
+            Map<Item, IntArrayList> buckets = new Reference2ObjectOpenHashMap<>();
+            IntArrayList unindexed = new IntArrayList();
+            // the registry iterates in id order, so all buckets are sorted
+            for (IRecipe recipe : registry) {
+                int id = registry.getID(recipe);
+                Set<Item> items = getKeyItems(recipe);
+                if (items == null) {
+                    unindexed.add(id);
+                } else {
+                    for (Item item : items) {
+                        buckets.computeIfAbsent(item, k -> new IntArrayList()).add(id);
+                    }
+                }
+            }
+            buckets.forEach((item, ids) -> this.buckets.put(item, ids.toIntArray()));
+            this.unindexed = unindexed.toIntArray();
+        }
+
+        private int[] getCandidates(InventoryCrafting inv) {
+            Set<Item> items = new ReferenceOpenHashSet<>();
+            int size = this.unindexed.length;
+            for (int i = 0, n = inv.getSizeInventory(); i < n; i++) {
+                ItemStack stack = inv.getStackInSlot(i);
+                if (!stack.isEmpty() && items.add(stack.getItem())) {
+                    size += this.buckets.getOrDefault(stack.getItem(), IntArrays.EMPTY_ARRAY).length;
+                }
+            }
+            int[] candidates = Arrays.copyOf(this.unindexed, size);
+            int pos = this.unindexed.length;
+            for (Item item : items) {
+                int[] bucket = this.buckets.getOrDefault(item, IntArrays.EMPTY_ARRAY);
+                System.arraycopy(bucket, 0, candidates, pos, bucket.length);
+                pos += bucket.length;
+            }
+            // recipes can be in multiple buckets, duplicates are harmless since the first match is returned
+            Arrays.sort(candidates);
+            return candidates;
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.cleanroommc.groovyscript.compat.vanilla;
+
+import com.cleanroommc.groovyscript.api.GroovyLog;
+import com.cleanroommc.groovyscript.api.IIngredient;
+import com.cleanroommc.groovyscript.helper.ingredient.ItemsIngredient;
+import com.cleanroommc.groovyscript.helper.ingredient.OreDictIngredient;
+import com.cleanroommc.groovyscript.helper.ingredient.OreDictMembership;
+import com.cleanroommc.groovyscript.registry.ReloadableRegistryManager;
+import com.cleanroommc.groovyscript.sandbox.GroovyLogImpl;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.item.crafting.Ingredient;
+import net.minecraftforge.fml.common.registry.ForgeRegistries;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Queues crafting recipe removals by output and by input and executes them together. Removals with an item based ingredient only test
+ * the recipes found in an item to recipe index instead of every recipe. All other removals share a single pass over the registry.
+ * <p>
+ * The index is built on the first flush and updated when recipes are added. It is discarded after scripts ran, since reloading can
+ * change the registry arbitrarily, and rebuilt when the ore dictionary changed, since recipe ingredients may match other items then.
+ * <p>
+ * Removals remember the script and line which queued them, so errors are logged like they were logged by the removal itself.
+ */
+class CraftingRemovalQueue {
+
+    private final List<Removal> pending = new ArrayList<>();
+    private Map<Item, List<IRecipe>> outputIndex;
+    private Map<Item, List<IRecipe>> inputIndex;
+    private int indexedOreGeneration;
+    private boolean flushing;
+
+    void add(IIngredient ingredient, boolean byOutput, boolean log) {
+        this.pending.add(new Removal(ingredient, byOutput, log ? GroovyLogImpl.LOG.getSource() : null));
+    }
+
+    void onRecipeAdded(IRecipe recipe) {
+        if (this.outputIndex != null && recipe.getRegistryName() != null) {
+            index(recipe);
+        }
+    }
+
+    void invalidate() {
+        this.outputIndex = null;
+        this.inputIndex = null;
+    }
+
+    void flush() {
+        if (this.flushing || this.pending.isEmpty()) return;
+        this.flushing = true;
+        try {
+            List<Removal> removals = new ArrayList<>(this.pending);
+            this.pending.clear();
+            findCandidates(removals);
+            // execute removals in the order they were queued, a recipe might already be removed by an earlier removal
+            for (Removal removal : removals) {
+                boolean found = false;
+                for (IRecipe recipe : removal.candidates) {
+                    if (ForgeRegistries.RECIPES.getValue(recipe.getRegistryName()) == recipe && removal.test(recipe)) {
+                        ReloadableRegistryManager.removeRegistryEntry(ForgeRegistries.RECIPES, recipe.getRegistryName());
+                        found = true;
+                    }
+                }
+                if (!found && removal.logSource != null) {
+                    GroovyLogImpl.LOG.withSource(removal.logSource, () -> GroovyLog.msg("Error removing Minecraft Crafting recipe")
+                            .add("No recipes found for {}", removal.ingredient)
+                            .error()
+                            .post());
+                }
+            }
+        } finally {
+            this.flushing = false;
+        }
+    }
+
+    private void findCandidates(List<Removal> removals) {
+        List<Removal> unindexed = new ArrayList<>();
+        for (Removal removal : removals) {
+            if (isIndexable(removal.ingredient)) {
+                if (this.outputIndex == null || this.indexedOreGeneration != OreDictMembership.getGeneration()) buildIndex();
+                removal.candidates = lookup(removal.byOutput ? this.outputIndex : this.inputIndex, removal.ingredient);
+            } else {
+                removal.candidates = new ArrayList<>();
+                unindexed.add(removal);
+            }
+        }
+        if (!unindexed.isEmpty()) {
+            for (IRecipe recipe : ForgeRegistries.RECIPES) {
+                if (recipe.getRegistryName() == null) continue;
+                for (Removal removal : unindexed) {
+                    if (removal.test(recipe)) {
+                        removal.candidates.add(recipe);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Only ingredients which never match items outside their matching stacks can use the index.
+     */
+    private static boolean isIndexable(IIngredient ingredient) {
+        return (Object) ingredient instanceof ItemStack || ingredient instanceof OreDictIngredient || ingredient instanceof ItemsIngredient;
+    }
+
+    private static List<IRecipe> lookup(Map<Item, List<IRecipe>> index, IIngredient ingredient) {
+        List<IRecipe> candidates = new ArrayList<>();
+        Set<Item> items = new ReferenceOpenHashSet<>();
+        for (ItemStack stack : ingredient.getMatchingStacks()) {
+            items.add(stack.getItem());
+        }
+        for (Item item : items) {
+            candidates.addAll(index.getOrDefault(item, Collections.emptyList()));
+        }
+        return candidates;
+    }
+
+    private void buildIndex() {
+        this.outputIndex = new Reference2ObjectOpenHashMap<>();
+        this.inputIndex = new Reference2ObjectOpenHashMap<>();
+        this.indexedOreGeneration = OreDictMembership.getGeneration();
+        for (IRecipe recipe : ForgeRegistries.RECIPES) {
+            if (recipe.getRegistryName() != null) {
+                index(recipe);
+            }
+        }
+    }
+
+    private void index(IRecipe recipe) {
+        this.outputIndex.computeIfAbsent(recipe.getRecipeOutput().getItem(), k -> new ArrayList<>()).add(recipe);
+        // removal by input only tests the first matching stack of each ingredient
+        for (Ingredient ingredient : recipe.getIngredients()) {
+            ItemStack[] stacks = ingredient.getMatchingStacks();
+            if (stacks.length == 0) continue;
+            List<IRecipe> recipes = this.inputIndex.computeIfAbsent(stacks[0].getItem(), k -> new ArrayList<>());
+            // the recipe is always the last element if it was already added for this item
+            if (recipes.isEmpty() || recipes.get(recipes.size() - 1) != recipe) {
+                recipes.add(recipe);
+            }
+        }
+    }
+
+    private static class Removal {
+
+        private final IIngredient ingredient;
+        private final boolean byOutput;
+        // null if errors are not logged
+        private final String logSource;
+        private List<IRecipe> candidates;
+
+        private Removal(IIngredient ingredient, boolean byOutput, String logSource) {
+            this.ingredient = ingredient;
+            this.byOutput = byOutput;
+            this.logSource = logSource;
+        }
+
+        private boolean test(IRecipe recipe) {
+            if (this.byOutput) {
+                return this.ingredient.test(recipe.getRecipeOutput());
+            }
+            return !recipe.getIngredients().isEmpty() && recipe.getIngredients().stream().anyMatch(i -> i.getMatchingStacks().length > 0 && this.ingredient.test(i.getMatchingStacks()[0]));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.cleanroommc.groovyscript.compat.vanilla;
+
+import net.minecraft.item.ItemStack;
+import net.minecraft.nbt.NBTTagCompound;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.function.Predicate;
+
+/**
+ * The extra state GroovyScript attaches to an {@link ItemStack}. Most item stacks never have any of it, so the stack only holds a
+ * reference to this object, which is created when the first value is set.
+ */
+@ApiStatus.Internal
+public class ItemStackExtension {
+
+    public Predicate<ItemStack> matchCondition;
+    public ItemStackTransformer transformer;
+    public Predicate<NBTTagCompound> nbtMatcher;
+    public String mark;
+}
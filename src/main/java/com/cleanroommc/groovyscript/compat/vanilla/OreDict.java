@@ -1,10 +1,12 @@
 package com.cleanroommc.groovyscript.compat.vanilla;
 
+import com.cleanroommc.groovyscript.GroovyScript;
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.cleanroommc.groovyscript.api.GroovyLog;
 import com.cleanroommc.groovyscript.core.mixin.OreDictionaryAccessor;
 import com.cleanroommc.groovyscript.helper.Alias;
 import com.cleanroommc.groovyscript.helper.ingredient.IngredientHelper;
+import com.cleanroommc.groovyscript.helper.ingredient.OreDictMembership;
 import com.cleanroommc.groovyscript.registry.VirtualizedRegistry;
 import net.minecraft.block.Block;
 import net.minecraft.item.Item;
@@ -30,6 +32,18 @@ public class OreDict extends VirtualizedRegistry<OreDictEntry> {
         restoreFromBackup().forEach(entry -> OreDictionary.registerOre(entry.name, entry.stack));
     }
 
+    /**
+     * Called when a script resolves an ore dict ingredient. Scripts which read ore dict entries need to run again on an incremental reload
+     * when another script changes the ore dictionary.
+     */
+    @GroovyBlacklist
+    @ApiStatus.Internal
+    public static void onRead() {
+        if (GroovyScript.isSandboxLoaded() && GroovyScript.getSandbox().getCurrentLoader() != null) {
+            GroovyScript.getSandbox().getReloadTracker().onAccess(VanillaModule.oreDict);
+        }
+    }
+
     public void add(String name, Item item) {
         add(name, new ItemStack(item));
     }
@@ -86,6 +100,8 @@ public class OreDict extends VirtualizedRegistry<OreDictEntry> {
 
     @GroovyBlacklist
     private boolean remove(String oreDict, ItemStack ore, boolean scripted) {
+        // crafting removals by ore dict must see the ore dict of the time they were queued
+        VanillaModule.crafting.flushPendingRemovals();
         Integer id = OreDictionaryAccessor.getNameToId().get(oreDict);
         if (id != null) {
             int i = id;
@@ -103,6 +119,8 @@ public class OreDict extends VirtualizedRegistry<OreDictEntry> {
             if (oreDicts != null) {
                 oreDicts.remove(id);
             }
+            OreDictMembership.invalidate();
+            CraftingRecipeIndex.invalidate();
             if (scripted) {
                 addBackup(new OreDictEntry(oreDict, ore));
             }
@@ -2,6 +2,7 @@ package com.cleanroommc.groovyscript.compat.vanilla;
 
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.cleanroommc.groovyscript.api.GroovyLog;
+import com.cleanroommc.groovyscript.api.IScriptReloadable;
 import com.cleanroommc.groovyscript.registry.NamedRegistry;
 import com.cleanroommc.groovyscript.sandbox.ClosureHelper;
 import com.cleanroommc.groovyscript.sandbox.expand.LambdaClosure;
@@ -17,7 +18,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Predicate;
 
-public class Rarity extends NamedRegistry {
+public class Rarity extends NamedRegistry implements IScriptReloadable {
 
     private final List<Pair<Closure<Boolean>, IRarity>> rarities = new ArrayList<>();
 
@@ -61,11 +62,16 @@ public class Rarity extends NamedRegistry {
         rarities.add(Pair.of(predicate, rarity));
     }
 
+    @Override
     @GroovyBlacklist
     public void onReload() {
         this.rarities.clear();
     }
 
+    @Override
+    @GroovyBlacklist
+    public void afterScriptLoad() {}
+
     private String getAppropriateRarityName(TextFormatting formatting) {
         return switch (formatting) {
             case WHITE -> EnumRarity.COMMON.rarityName;
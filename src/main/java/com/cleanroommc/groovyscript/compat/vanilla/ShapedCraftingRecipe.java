@@ -58,6 +58,41 @@ public class ShapedCraftingRecipe extends CraftingRecipe implements IShapedRecip
         return MatchList.EMPTY;
     }
 
+    @Override
+    protected boolean hasMatch(InventoryCrafting inv) {
+        for (int x = 0; x <= inv.getWidth() - width; x++) {
+            for (int y = 0; y <= inv.getHeight() - height; ++y) {
+                if (testMatch(inv, x, y, false) || (mirrored && testMatch(inv, x, y, true))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Same as {@link #checkMatch(InventoryCrafting, int, int, boolean)}, but without creating a {@link MatchList}.
+     */
+    protected boolean testMatch(InventoryCrafting inv, int startX, int startY, boolean mirror) {
+        boolean matchedAny = false;
+        for (int x = 0; x < inv.getWidth(); x++) {
+            for (int y = 0; y < inv.getHeight(); y++) {
+                IIngredient target = getTarget(x - startX, y - startY, mirror);
+                ItemStack itemStack = inv.getStackInRowAndColumn(x, y);
+                if (!target.test(itemStack)) return false;
+                if (!itemStack.isEmpty()) matchedAny = true;
+            }
+        }
+        return matchedAny;
+    }
+
+    private IIngredient getTarget(int subX, int subY, boolean mirror) {
+        if (subX >= 0 && subY >= 0 && subX < width && subY < height) {
+            return mirror ? input.get(width - subX - 1 + subY * width) : input.get(subX + subY * width);
+        }
+        return IIngredient.EMPTY;
+    }
+
     /**
      * Based on {@link net.minecraft.item.crafting.ShapedRecipes#checkMatch(InventoryCrafting, int, int, boolean)}
      */
@@ -66,18 +101,7 @@ public class ShapedCraftingRecipe extends CraftingRecipe implements IShapedRecip
         MatchList matches = new MatchList();
         for (int x = 0; x < inv.getWidth(); x++) {
             for (int y = 0; y < inv.getHeight(); y++) {
-                int subX = x - startX;
-                int subY = y - startY;
-                IIngredient target = IIngredient.EMPTY;
-
-                if (subX >= 0 && subY >= 0 && subX < width && subY < height) {
-                    if (mirror) {
-                        target = input.get(width - subX - 1 + subY * width);
-                    } else {
-                        target = input.get(subX + subY * width);
-                    }
-                }
-
+                IIngredient target = getTarget(x - startX, y - startY, mirror);
                 ItemStack itemStack = inv.getStackInRowAndColumn(x, y);
                 if (target.test(itemStack)) {
                     if (!itemStack.isEmpty()) {
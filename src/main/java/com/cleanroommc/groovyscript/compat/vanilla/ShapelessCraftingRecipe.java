@@ -58,6 +58,35 @@ public class ShapelessCraftingRecipe extends CraftingRecipe {
         return input.isEmpty() ? matches : MatchList.EMPTY;
     }
 
+    @Override
+    protected boolean hasMatch(InventoryCrafting inv) {
+        int size = inv.getSizeInventory();
+        if (size > Long.SIZE) return super.hasMatch(inv);
+        // bits of slots which are empty or already matched
+        long used = 0;
+        int given = 0;
+        for (int i = 0; i < size; i++) {
+            if (inv.getStackInSlot(i).isEmpty()) {
+                used |= 1L << i;
+            } else {
+                given++;
+            }
+        }
+        if (given == 0 || given != input.size()) return false;
+        // same greedy matching as getMatchingList, each ingredient takes the first unused matching slot
+        main:
+        for (IIngredient ingredient : input) {
+            for (int i = 0; i < size; i++) {
+                if ((used & (1L << i)) == 0 && matches(ingredient, inv.getStackInSlot(i))) {
+                    used |= 1L << i;
+                    continue main;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
     @Override
     public boolean canFit(int width, int height) {
         return width * height >= input.size();
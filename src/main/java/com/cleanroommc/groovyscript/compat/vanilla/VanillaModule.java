@@ -7,12 +7,15 @@ import com.cleanroommc.groovyscript.compat.content.Content;
 import com.cleanroommc.groovyscript.compat.inworldcrafting.InWorldCrafting;
 import com.cleanroommc.groovyscript.compat.loot.Loot;
 import com.cleanroommc.groovyscript.compat.mods.GroovyPropertyContainer;
+import com.cleanroommc.groovyscript.sandbox.LoadProfiler;
 import com.cleanroommc.groovyscript.sandbox.expand.ExpansionHelper;
 import net.minecraft.command.ICommandSender;
 import net.minecraft.item.ItemStack;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.List;
 
 public class VanillaModule extends GroovyPropertyContainer implements IScriptReloadable {
 
@@ -45,26 +48,26 @@ public class VanillaModule extends GroovyPropertyContainer implements IScriptRel
         ExpansionHelper.mixinClass(ICommandSender.class, CommandSenderExpansion.class);
     }
 
+    /**
+     * @return all vanilla registries in the order they are reloaded
+     */
+    @GroovyBlacklist
+    public List<IScriptReloadable> getReloadableRegistries() {
+        return Arrays.asList(crafting, furnace, loot, oreDict, rarity, player, inWorldCrafting, command, gameRule);
+    }
+
     @Override
     @GroovyBlacklist
     public void onReload() {
-        crafting.onReload();
-        furnace.onReload();
-        loot.onReload();
-        oreDict.onReload();
-        rarity.onReload();
-        player.onReload();
-        inWorldCrafting.onReload();
-        command.onReload();
-        gameRule.onReload();
+        getReloadableRegistries().forEach(IScriptReloadable::onReload);
     }
 
     @Override
     @GroovyBlacklist
     public void afterScriptLoad() {
-        furnace.afterScriptLoad();
-        loot.afterScriptLoad();
-        inWorldCrafting.afterScriptLoad();
+        LoadProfiler.measure(furnace, false, furnace::afterScriptLoad);
+        LoadProfiler.measure(loot, false, loot::afterScriptLoad);
+        LoadProfiler.measure(inWorldCrafting, false, inWorldCrafting::afterScriptLoad);
     }
 
     @Override
@@ -0,0 +1,48 @@
+package com.cleanroommc.groovyscript.core.mixin;
+
+import com.cleanroommc.groovyscript.compat.vanilla.CraftingRecipeIndex;
+import net.minecraft.inventory.InventoryCrafting;
+import net.minecraft.item.ItemStack;
+import net.minecraft.item.crafting.CraftingManager;
+import net.minecraft.item.crafting.IRecipe;
+import net.minecraft.util.NonNullList;
+import net.minecraft.world.World;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
+
+@Mixin(value = CraftingManager.class)
+public abstract class CraftingManagerMixin {
+
+    @Inject(method = "findMatchingResult", at = @At("HEAD"), cancellable = true)
+    private static void findMatchingResult(InventoryCrafting craftMatrix, World world, CallbackInfoReturnable<ItemStack> cir) {
+        if (CraftingRecipeIndex.isEnabled()) {
+            IRecipe recipe = CraftingRecipeIndex.findMatchingRecipe(craftMatrix, world);
+            cir.setReturnValue(recipe == null ? ItemStack.EMPTY : recipe.getCraftingResult(craftMatrix));
+        }
+    }
+
+    @Inject(method = "findMatchingRecipe", at = @At("HEAD"), cancellable = true)
+    private static void findMatchingRecipe(InventoryCrafting craftMatrix, World world, CallbackInfoReturnable<IRecipe> cir) {
+        if (CraftingRecipeIndex.isEnabled()) {
+            cir.setReturnValue(CraftingRecipeIndex.findMatchingRecipe(craftMatrix, world));
+        }
+    }
+
+    @Inject(method = "getRemainingItems", at = @At("HEAD"), cancellable = true)
+    private static void getRemainingItems(InventoryCrafting craftMatrix, World world, CallbackInfoReturnable<NonNullList<ItemStack>> cir) {
+        if (CraftingRecipeIndex.isEnabled()) {
+            IRecipe recipe = CraftingRecipeIndex.findMatchingRecipe(craftMatrix, world);
+            if (recipe != null) {
+                cir.setReturnValue(recipe.getRemainingItems(craftMatrix));
+                return;
+            }
+            NonNullList<ItemStack> remaining = NonNullList.withSize(craftMatrix.getSizeInventory(), ItemStack.EMPTY);
+            for (int i = 0; i < remaining.size(); i++) {
+                remaining.set(i, craftMatrix.getStackInSlot(i));
+            }
+            cir.setReturnValue(remaining);
+        }
+    }
+}
@@ -6,10 +6,12 @@ import com.cleanroommc.groovyscript.compat.vanilla.VanillaModule;
 import net.minecraft.block.state.IBlockState;
 import net.minecraft.entity.Entity;
 import net.minecraft.entity.item.EntityItem;
+import net.minecraft.item.ItemStack;
 import net.minecraft.util.math.BlockPos;
 import net.minecraft.world.World;
 import net.minecraftforge.fluids.Fluid;
 import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.Unique;
 import org.spongepowered.asm.mixin.injection.At;
 import org.spongepowered.asm.mixin.injection.Inject;
 import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
@@ -17,6 +19,22 @@ import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
 @Mixin(EntityItem.class)
 public abstract class EntityItemMixin extends Entity {
 
+    // state of the last failed fluid recipe attempt
+    @Unique
+    private FluidRecipe.InputFilter groovyScript$lastFilter;
+    @Unique
+    private long groovyScript$lastPos;
+    @Unique
+    private IBlockState groovyScript$lastState;
+    @Unique
+    private ItemStack groovyScript$lastStack;
+    @Unique
+    private int groovyScript$lastCount;
+    @Unique
+    private int groovyScript$lastMeta;
+    @Unique
+    private int groovyScript$lastItemsEntered;
+
     private EntityItemMixin(World worldIn) {
         super(worldIn);
     }
@@ -28,9 +46,15 @@ public abstract class EntityItemMixin extends Entity {
             BlockPos pos = new BlockPos(thisEntity);
             IBlockState blockState = thisEntity.world.getBlockState(pos);
             Fluid fluid = FluidRecipe.getFluid(blockState);
-            if (fluid != null && FluidRecipe.isSourceBlock(blockState) && FluidRecipe.findAndRunRecipe(fluid, thisEntity.world, pos, blockState) && thisEntity.isDead) {
-                ci.cancel();
-                return;
+            if (fluid != null && FluidRecipe.isSourceBlock(blockState) && groovyScript$shouldTryFluidRecipe(fluid, pos, blockState)) {
+                if (FluidRecipe.findAndRunRecipe(fluid, thisEntity.world, pos, blockState)) {
+                    // try again next tick
+                    this.groovyScript$lastFilter = null;
+                    if (thisEntity.isDead) {
+                        ci.cancel();
+                        return;
+                    }
+                }
             }
 
             if (((EntityAccessor) thisEntity).getFire() > 0) {
@@ -42,6 +66,36 @@ public abstract class EntityItemMixin extends Entity {
         }
     }
 
+    /**
+     * Fluid recipes only need to be tried if this item can be part of a recipe and if something changed since the last attempt. When this
+     * item enters a block, all other items in the block try again.
+     */
+    @Unique
+    private boolean groovyScript$shouldTryFluidRecipe(Fluid fluid, BlockPos pos, IBlockState blockState) {
+        FluidRecipe.InputFilter filter = FluidRecipe.getInputFilter(fluid);
+        ItemStack stack = ((EntityItem) (Object) this).getItem();
+        if (filter == null || !filter.accepts(stack)) return false;
+        if (filter.hasStartCondition()) return true;
+        long posKey = pos.toLong();
+        if (this.groovyScript$lastFilter == null || posKey != this.groovyScript$lastPos || stack != this.groovyScript$lastStack) {
+            FluidRecipe.onItemEntered(pos);
+        } else if (filter == this.groovyScript$lastFilter &&
+                   blockState == this.groovyScript$lastState &&
+                   stack.getCount() == this.groovyScript$lastCount &&
+                   stack.getMetadata() == this.groovyScript$lastMeta &&
+                   FluidRecipe.getItemsEntered(pos) == this.groovyScript$lastItemsEntered) {
+            return false;
+        }
+        this.groovyScript$lastFilter = filter;
+        this.groovyScript$lastItemsEntered = FluidRecipe.getItemsEntered(pos);
+        this.groovyScript$lastPos = posKey;
+        this.groovyScript$lastState = blockState;
+        this.groovyScript$lastStack = stack;
+        this.groovyScript$lastCount = stack.getCount();
+        this.groovyScript$lastMeta = stack.getMetadata();
+        return true;
+    }
+
     @Override
     public void onRemovedFromWorld() {
         super.onRemovedFromWorld();
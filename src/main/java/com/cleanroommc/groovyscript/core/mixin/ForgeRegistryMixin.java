@@ -2,10 +2,12 @@ package com.cleanroommc.groovyscript.core.mixin;
 
 import com.cleanroommc.groovyscript.api.GroovyLog;
 import com.cleanroommc.groovyscript.api.IReloadableForgeRegistry;
+import com.cleanroommc.groovyscript.compat.vanilla.CraftingRecipeIndex;
 import com.cleanroommc.groovyscript.registry.ReloadableRegistryManager;
 import com.cleanroommc.groovyscript.registry.VirtualizedForgeRegistryEntry;
 import com.google.common.collect.BiMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraft.item.crafting.IRecipe;
 import net.minecraft.util.ResourceLocation;
 import net.minecraftforge.registries.ForgeRegistry;
 import net.minecraftforge.registries.IForgeRegistry;
@@ -16,6 +18,9 @@ import org.spongepowered.asm.mixin.Final;
 import org.spongepowered.asm.mixin.Mixin;
 import org.spongepowered.asm.mixin.Shadow;
 import org.spongepowered.asm.mixin.Unique;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfoReturnable;
 
 import java.util.BitSet;
 import java.util.Locale;
@@ -97,6 +102,7 @@ public abstract class ForgeRegistryMixin<V extends IForgeRegistryEntry<V>> imple
             this.groovyScript$vanilla.groovyScript$forceAdd(registryEntry, id, owner);
             this.groovyScript$frozen.groovyScript$forceAdd(registryEntry, id, owner);
         }
+        groovyScript$onModified();
         return newEntry;
     }
 
@@ -121,6 +127,7 @@ public abstract class ForgeRegistryMixin<V extends IForgeRegistryEntry<V>> imple
             groovyScript$initReg();
             this.groovyScript$vanilla.groovyScript$putDummy(dummy, entry, name, id, ownerOverride);
             this.groovyScript$frozen.groovyScript$putDummy(dummy, entry, name, id, ownerOverride);
+            groovyScript$onModified();
         }
     }
 
@@ -152,6 +159,19 @@ public abstract class ForgeRegistryMixin<V extends IForgeRegistryEntry<V>> imple
             }
             this.groovyScript$backups = null;
         }
+        groovyScript$onModified();
+    }
+
+    @Inject(method = "add(ILnet/minecraftforge/registries/IForgeRegistryEntry;Ljava/lang/String;)I", at = @At("RETURN"))
+    private void onAdd(int id, V value, String owner, CallbackInfoReturnable<Integer> cir) {
+        groovyScript$onModified();
+    }
+
+    @Unique
+    private void groovyScript$onModified() {
+        if (this.superType == IRecipe.class) {
+            CraftingRecipeIndex.invalidate();
+        }
     }
 
     @Unique
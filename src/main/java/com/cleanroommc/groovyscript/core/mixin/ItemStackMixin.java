@@ -1,6 +1,7 @@
 package com.cleanroommc.groovyscript.core.mixin;
 
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
+import com.cleanroommc.groovyscript.compat.vanilla.ItemStackExtension;
 import com.cleanroommc.groovyscript.compat.vanilla.ItemStackMixinExpansion;
 import com.cleanroommc.groovyscript.compat.vanilla.ItemStackTransformer;
 import net.minecraft.item.ItemStack;
@@ -14,14 +15,18 @@ import java.util.function.Predicate;
 @Mixin(value = ItemStack.class)
 public abstract class ItemStackMixin implements ItemStackMixinExpansion {
 
+    // only created when needed, so stacks without extra state only pay for one reference
     @Unique
-    protected Predicate<ItemStack> groovyScript$matchCondition;
-    @Unique
-    protected ItemStackTransformer groovyScript$transformer;
-    @Unique
-    protected Predicate<NBTTagCompound> groovyScript$nbtMatcher;
+    @Nullable
+    private ItemStackExtension groovyScript$extension;
+
     @Unique
-    protected String groovyScript$mark;
+    private ItemStackExtension groovyScript$getOrCreateExtension() {
+        if (this.groovyScript$extension == null) {
+            this.groovyScript$extension = new ItemStackExtension();
+        }
+        return this.groovyScript$extension;
+    }
 
     @GroovyBlacklist
     @Override
@@ -32,54 +37,56 @@ public abstract class ItemStackMixin implements ItemStackMixinExpansion {
     @GroovyBlacklist
     @Override
     public ItemStackTransformer grs$getTransformer() {
-        return groovyScript$transformer;
+        return groovyScript$extension == null ? null : groovyScript$extension.transformer;
     }
 
     @GroovyBlacklist
     @Override
     public Predicate<ItemStack> grs$getMatcher() {
-        return groovyScript$matchCondition;
+        return groovyScript$extension == null ? null : groovyScript$extension.matchCondition;
     }
 
     @GroovyBlacklist
     @Override
     public Predicate<NBTTagCompound> grs$getNbtMatcher() {
-        return groovyScript$nbtMatcher;
+        return groovyScript$extension == null ? null : groovyScript$extension.nbtMatcher;
     }
 
     @GroovyBlacklist
     @Override
     public void grs$setTransformer(ItemStackTransformer transformer) {
-        if (grs$getItemStack() != ItemStack.EMPTY) {
-            this.groovyScript$transformer = transformer;
+        if (grs$getItemStack() != ItemStack.EMPTY && (transformer != null || this.groovyScript$extension != null)) {
+            groovyScript$getOrCreateExtension().transformer = transformer;
         }
     }
 
     @GroovyBlacklist
     @Override
     public void grs$setMatcher(Predicate<ItemStack> matcher) {
-        if (grs$getItemStack() != ItemStack.EMPTY) {
-            this.groovyScript$matchCondition = matcher;
+        if (grs$getItemStack() != ItemStack.EMPTY && (matcher != null || this.groovyScript$extension != null)) {
+            groovyScript$getOrCreateExtension().matchCondition = matcher;
         }
     }
 
     @GroovyBlacklist
     @Override
     public void grs$setNbtMatcher(Predicate<NBTTagCompound> nbtMatcher) {
-        if (grs$getItemStack() != ItemStack.EMPTY) {
-            this.groovyScript$nbtMatcher = nbtMatcher;
+        if (grs$getItemStack() != ItemStack.EMPTY && (nbtMatcher != null || this.groovyScript$extension != null)) {
+            groovyScript$getOrCreateExtension().nbtMatcher = nbtMatcher;
         }
     }
 
     @GroovyBlacklist
     @Override
     public @Nullable String grs$getMark() {
-        return groovyScript$mark;
+        return groovyScript$extension == null ? null : groovyScript$extension.mark;
     }
 
     @GroovyBlacklist
     @Override
     public void grs$setMark(String mark) {
-        this.groovyScript$mark = mark;
+        if (mark != null || this.groovyScript$extension != null) {
+            groovyScript$getOrCreateExtension().mark = mark;
+        }
     }
 }
@@ -0,0 +1,36 @@
+package com.cleanroommc.groovyscript.core.mixin;
+
+import com.cleanroommc.groovyscript.GroovyScript;
+import com.cleanroommc.groovyscript.compat.vanilla.CraftingRecipeIndex;
+import com.cleanroommc.groovyscript.compat.vanilla.VanillaModule;
+import com.cleanroommc.groovyscript.helper.ingredient.OreDictMembership;
+import net.minecraft.item.ItemStack;
+import net.minecraftforge.oredict.OreDictionary;
+import org.spongepowered.asm.mixin.Mixin;
+import org.spongepowered.asm.mixin.injection.At;
+import org.spongepowered.asm.mixin.injection.Inject;
+import org.spongepowered.asm.mixin.injection.callback.CallbackInfo;
+
+@Mixin(value = OreDictionary.class, remap = false)
+public class OreDictionaryMixin {
+
+    @Inject(method = "registerOreImpl", at = @At("HEAD"))
+    private static void beforeRegisterOre(String name, ItemStack ore, CallbackInfo ci) {
+        // crafting removals by ore dict must see the ore dict of the time they were queued
+        if (GroovyScript.isSandboxLoaded() && GroovyScript.getSandbox().getCurrentLoader() != null) {
+            VanillaModule.crafting.flushPendingRemovals();
+        }
+    }
+
+    @Inject(method = "registerOreImpl", at = @At("TAIL"))
+    private static void onRegisterOre(String name, ItemStack ore, CallbackInfo ci) {
+        OreDictMembership.invalidate();
+        CraftingRecipeIndex.invalidate();
+    }
+
+    @Inject(method = "rebakeMap", at = @At("TAIL"))
+    private static void onRebakeMap(CallbackInfo ci) {
+        OreDictMembership.invalidate();
+        CraftingRecipeIndex.invalidate();
+    }
+}
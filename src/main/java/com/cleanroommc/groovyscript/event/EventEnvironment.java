@@ -0,0 +1,57 @@
+package com.cleanroommc.groovyscript.event;
+
+import com.cleanroommc.groovyscript.sandbox.ClosureHelper;
+import groovy.lang.Closure;
+import groovy.lang.GroovyObjectSupport;
+import groovy.lang.MissingMethodException;
+import groovy.lang.MissingPropertyException;
+import org.codehaus.groovy.runtime.InvokerHelper;
+
+/**
+ * The delegate of event listener closures. It forwards property and method access to the event which is currently dispatched on the
+ * calling thread. This way the closure is bound to its environment once on registration instead of modifying the shared closure on
+ * every event, which also makes listeners safe to call from multiple threads.
+ */
+class EventEnvironment extends GroovyObjectSupport {
+
+    static final EventEnvironment INSTANCE = new EventEnvironment();
+
+    private static final ThreadLocal<Object> currentEvent = new ThreadLocal<>();
+
+    private EventEnvironment() {}
+
+    /**
+     * Calls the closure while the event is the current event of this thread.
+     */
+    static void call(Closure<?> closure, Object event) {
+        Object previous = currentEvent.get();
+        currentEvent.set(event);
+        try {
+            ClosureHelper.call(closure);
+        } finally {
+            // events can be posted from within listeners
+            currentEvent.set(previous);
+        }
+    }
+
+    @Override
+    public Object getProperty(String propertyName) {
+        Object event = currentEvent.get();
+        if (event == null) throw new MissingPropertyException(propertyName, EventEnvironment.class);
+        return InvokerHelper.getProperty(event, propertyName);
+    }
+
+    @Override
+    public void setProperty(String propertyName, Object newValue) {
+        Object event = currentEvent.get();
+        if (event == null) throw new MissingPropertyException(propertyName, EventEnvironment.class);
+        InvokerHelper.setProperty(event, propertyName, newValue);
+    }
+
+    @Override
+    public Object invokeMethod(String name, Object args) {
+        Object event = currentEvent.get();
+        if (event == null) throw new MissingMethodException(name, EventEnvironment.class, InvokerHelper.asArray(args));
+        return InvokerHelper.invokeMethod(event, name, args);
+    }
+}
@@ -12,7 +12,10 @@ import net.minecraftforge.fml.common.ModContainer;
 import net.minecraftforge.fml.common.eventhandler.*;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.Consumer;
 
 public enum GroovyEventManager {
@@ -21,15 +24,26 @@ public enum GroovyEventManager {
 
     // only contains reloadable listeners
     private final List<EventListener> listeners = new ArrayList<>();
+    // contains all registered listeners, events may be posted from other threads
+    private final List<EventListener> allListeners = new CopyOnWriteArrayList<>();
 
     @GroovyBlacklist
     public void reset() {
         for (EventListener listener : this.listeners) {
             listener.unregister();
         }
+        this.allListeners.removeAll(this.listeners);
         this.listeners.clear();
     }
 
+    /**
+     * @return all currently registered listeners
+     */
+    @GroovyBlacklist
+    public List<EventListener> getListeners() {
+        return Collections.unmodifiableList(this.allListeners);
+    }
+
     public void listen(EventBusType eventBusType, EventPriority eventPriority, Closure<?> eventListener) {
         listen(eventPriority, eventBusType, eventListener);
     }
@@ -56,7 +70,7 @@ public enum GroovyEventManager {
             GroovyLog.get().error("Event listeners' only parameter should be the Event class you are trying to listen to.");
             return;
         }
-        listen(eventPriority, eventBusType, (Class<? extends Event>) eventClass, eventListener::call);
+        register(eventPriority, eventBusType, eventClass, eventListener::call, eventListener.getClass().getName());
     }
 
     public void listen(Class<? extends Event> eventClass, Closure<?> eventListener) {
@@ -73,34 +87,40 @@ public enum GroovyEventManager {
     }
 
     public void listen(EventPriority priority, EventBusType eventBusType, Class<? extends Event> eventClass, Closure<?> eventListener) {
-        listen(
-                priority,
-                eventBusType,
-                eventClass,
-                event -> ClosureHelper.call(ClosureHelper.withEnvironment(eventListener, event, true)));
+        // the environment forwards to the current event of the calling thread, so it only needs to be set once
+        ClosureHelper.withEnvironment(eventListener, EventEnvironment.INSTANCE, true);
+        register(priority, eventBusType, eventClass, event -> EventEnvironment.call(eventListener, event), eventListener.getClass().getName());
     }
 
     @GroovyBlacklist
     public <T extends Event> void listen(EventPriority priority, EventBusType eventBusType, Class<T> eventClass, Consumer<T> eventListener) {
-        EventListener listener = new EventListener(eventBusType, priority, eventClass, eventListener);
+        register(priority, eventBusType, eventClass, eventListener, eventListener.getClass().getName());
+    }
+
+    private void register(EventPriority priority, EventBusType eventBusType, Class<?> eventClass, Consumer<?> eventListener, String source) {
+        EventListener listener = new EventListener(eventBusType, priority, eventClass, eventListener, source);
+        this.allListeners.add(listener);
         LoadStage loadStage = GroovyScript.getSandbox().getCurrentLoader();
         if (loadStage != null && loadStage.isReloadable()) {
             this.listeners.add(listener);
+            GroovyScript.getSandbox().getReloadTracker().onListen();
         }
     }
 
-    private static class EventListener implements IEventListener {
+    public static class EventListener implements IEventListener {
 
         private final EventBus eventBus;
+        private final Class<?> eventClass;
+        private final String source;
         private final Consumer<Object> listener;
+        private final LongAdder invocations = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
 
         private IEventListener wrappedListener = this;
 
-        private EventListener(EventBusType busType, EventPriority priority, Class<?> eventClass, Closure<?> listener) {
-            this(busType, priority, eventClass, event -> ClosureHelper.call(listener, event));
-        }
-
-        private EventListener(EventBusType busType, EventPriority priority, Class<?> eventClass, Consumer<?> listener) {
+        private EventListener(EventBusType busType, EventPriority priority, Class<?> eventClass, Consumer<?> listener, String source) {
+            this.eventClass = eventClass;
+            this.source = source;
             this.eventBus = switch (busType) {
                 case ORE_GENERATION -> MinecraftForge.ORE_GEN_BUS;
                 case TERRAIN_GENERATION -> MinecraftForge.TERRAIN_GEN_BUS;
@@ -132,8 +152,33 @@ public enum GroovyEventManager {
         @Override
         public void invoke(Event event) {
             if (!event.isCancelable() || !event.isCanceled()) {
-                this.listener.accept(event);
+                long time = System.nanoTime();
+                try {
+                    this.listener.accept(event);
+                } finally {
+                    this.nanos.add(System.nanoTime() - time);
+                    this.invocations.increment();
+                }
             }
         }
+
+        public Class<?> getEventClass() {
+            return eventClass;
+        }
+
+        /**
+         * @return the class name of the closure or consumer which handles the event
+         */
+        public String getSource() {
+            return source;
+        }
+
+        public long getInvocations() {
+            return invocations.sum();
+        }
+
+        public long getTotalNanos() {
+            return nanos.sum();
+        }
     }
 }
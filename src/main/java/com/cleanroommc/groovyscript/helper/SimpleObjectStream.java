@@ -8,6 +8,7 @@ import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 
@@ -21,6 +22,7 @@ public class SimpleObjectStream<T> extends AbstractList<T> {
 
     private final List<T> recipes;
     private Predicate<T> remover;
+    private Function<Collection<T>, Collection<T>> batchRemover;
 
     public SimpleObjectStream(Collection<T> recipes) {
         this.recipes = new ArrayList<>(recipes);
@@ -36,6 +38,16 @@ public class SimpleObjectStream<T> extends AbstractList<T> {
         return this;
     }
 
+    /**
+     * Sets a function which removes many elements at once. It receives all elements to remove and returns the elements which were actually
+     * removed, ideally as a set with fast lookup. It is used instead of the remover when removing more than one element.
+     */
+    @GroovyBlacklist
+    public SimpleObjectStream<T> setBatchRemover(Function<Collection<T>, Collection<T>> batchRemover) {
+        this.batchRemover = batchRemover;
+        return this;
+    }
+
     public SimpleObjectStream<T> filter(Closure<Boolean> closure) {
         this.recipes.removeIf(recipe -> !ClosureHelper.call(true, closure, recipe));
         return this;
@@ -78,16 +90,33 @@ public class SimpleObjectStream<T> extends AbstractList<T> {
 
     @Override
     public boolean removeIf(Predicate<? super T> filter) {
+        if (this.batchRemover != null) {
+            List<T> matches = new ArrayList<>();
+            for (T recipe : this.recipes) {
+                if (filter.test(recipe)) matches.add(recipe);
+            }
+            return removeBatch(matches);
+        }
         Objects.requireNonNull(this.remover);
         return this.recipes.removeIf(t -> filter.test(t) && this.remover.test(t));
     }
 
     public SimpleObjectStream<T> removeAll() {
+        if (this.batchRemover != null) {
+            removeBatch(this.recipes);
+            return this;
+        }
         Objects.requireNonNull(this.remover);
         this.recipes.removeIf(this.remover);
         return this;
     }
 
+    private boolean removeBatch(Collection<T> toRemove) {
+        if (toRemove.isEmpty()) return false;
+        Collection<T> removed = this.batchRemover.apply(toRemove);
+        return !removed.isEmpty() && this.recipes.removeIf(removed::contains);
+    }
+
     public SimpleObjectStream<T> removeFirst() {
         Objects.requireNonNull(this.remover);
         for (int i = 0, n = this.recipes.size(); i < n; i++) {
@@ -1,5 +1,6 @@
 package com.cleanroommc.groovyscript.helper.ingredient;
 
+import com.cleanroommc.groovyscript.compat.vanilla.OreDict;
 import com.cleanroommc.groovyscript.compat.vanilla.VanillaModule;
 import net.minecraft.item.ItemStack;
 import net.minecraft.item.crafting.Ingredient;
@@ -17,6 +18,7 @@ public class OreDictIngredient extends IngredientBase implements Iterable<ItemSt
 
     public OreDictIngredient(String oreDict) {
         this.oreDict = oreDict;
+        OreDict.onRead();
     }
 
     public String getOreDict() {
@@ -44,15 +46,9 @@ public class OreDictIngredient extends IngredientBase implements Iterable<ItemSt
 
     @Override
     public boolean matches(ItemStack stack) {
-        // TODO this sucks
         if (IngredientHelper.isEmpty(stack)) return false;
-        for (int id : OreDictionary.getOreIDs(stack)) {
-            String oreName = OreDictionary.getOreName(id);
-            if (oreDict.equals(oreName)) {
-                return true;
-            }
-        }
-        return false;
+        // the ore name might not exist yet, so the id is not stored
+        return OreDictMembership.hasOreId(stack, OreDictMembership.getOreId(this.oreDict));
     }
 
     @Override
@@ -0,0 +1,85 @@
+package com.cleanroommc.groovyscript.helper.ingredient;
+
+import com.cleanroommc.groovyscript.core.mixin.OreDictionaryAccessor;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import net.minecraft.item.Item;
+import net.minecraft.item.ItemStack;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A snapshot of which ore ids each item and item meta combination has. This is the same information as
+ * {@link net.minecraftforge.oredict.OreDictionary#getOreIDs(ItemStack)}, but as one bitset per key, so checking a single ore id doesn't
+ * allocate.
+ * <p>
+ * The snapshot is rebuilt lazily after the ore dictionary changed.
+ */
+@ApiStatus.Internal
+public final class OreDictMembership {
+
+    private static final BitSet NONE = new BitSet();
+    private static volatile Int2ObjectOpenHashMap<BitSet> membership;
+    private static volatile int generation;
+
+    private OreDictMembership() {}
+
+    /**
+     * Called when an ore dict entry was added or removed.
+     */
+    public static void invalidate() {
+        membership = null;
+        generation++;
+    }
+
+    /**
+     * Indexes which resolve ore dict ingredients to items store this number and rebuild themselves when it changed.
+     *
+     * @return a number which changes every time the ore dictionary changes
+     */
+    public static int getGeneration() {
+        return generation;
+    }
+
+    /**
+     * @param name ore name
+     * @return the id of the ore name or -1 if it doesn't exist
+     */
+    public static int getOreId(String name) {
+        // don't use OreDictionary.getOreID(), it creates ids for unknown names
+        Integer id = OreDictionaryAccessor.getNameToId().get(name);
+        return id == null ? -1 : id;
+    }
+
+    public static boolean hasOreId(ItemStack stack, int oreId) {
+        if (oreId < 0 || stack.isEmpty() || stack.getItem().delegate.name() == null) return false;
+        Int2ObjectOpenHashMap<BitSet> membership = getMembership();
+        // same keys as OreDictionary.registerOreImpl
+        int key = Item.REGISTRY.getIDForObject(stack.getItem().delegate.get());
+        if (membership.getOrDefault(key, NONE).get(oreId)) return true;
+        return membership.getOrDefault(key | ((stack.getItemDamage() + 1) << 16), NONE).get(oreId);
+    }
+
+    private static Int2ObjectOpenHashMap<BitSet> getMembership() {
+        Int2ObjectOpenHashMap<BitSet> membership = OreDictMembership.membership;
+        if (membership == null) {
+            synchronized (OreDictMembership.class) {
+                membership = OreDictMembership.membership;
+                if (membership == null) {
+                    membership = new Int2ObjectOpenHashMap<>();
+                    for (Map.Entry<Integer, List<Integer>> entry : OreDictionaryAccessor.getStackToId().entrySet()) {
+                        BitSet ids = new BitSet();
+                        for (int id : entry.getValue()) {
+                            ids.set(id);
+                        }
+                        membership.put((int) entry.getKey(), ids);
+                    }
+                    OreDictMembership.membership = membership;
+                }
+            }
+        }
+        return membership;
+    }
+}
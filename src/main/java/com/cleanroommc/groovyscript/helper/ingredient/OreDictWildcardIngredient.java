@@ -1,6 +1,7 @@
 package com.cleanroommc.groovyscript.helper.ingredient;
 
 import com.cleanroommc.groovyscript.api.IIngredient;
+import com.cleanroommc.groovyscript.compat.vanilla.OreDict;
 import com.cleanroommc.groovyscript.core.mixin.OreDictionaryAccessor;
 import net.minecraft.item.ItemStack;
 import net.minecraftforge.oredict.OreDictionary;
@@ -37,6 +38,7 @@ public class OreDictWildcardIngredient extends ItemsIngredient {
         super(itemStacks);
         this.oreDict = oreDict;
         this.matchingOreDictionaries.addAll(matchingOreDictionaries);
+        OreDict.onRead();
     }
 
     public String getOreDict() {
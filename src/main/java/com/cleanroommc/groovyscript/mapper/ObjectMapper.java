@@ -22,8 +22,10 @@ import org.jetbrains.annotations.Nullable;
 
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
 
 /**
  * This class handles global getter functions like `item(...)` and `fluid(...)`
@@ -55,9 +57,12 @@ public class ObjectMapper<T> extends Closure<T> implements INamed, IDocumented {
     private final Completer completer;
     private final String documentation;
     private final TextureBinder<T> textureBinder;
+    private final @Nullable UnaryOperator<T> copier;
+    // results of earlier calls, only used if the copier is not null
+    private final Map<List<Object>, T> cache = new ConcurrentHashMap<>();
     private List<MethodNode> methodNodes;
 
-    private ObjectMapper(String name, GroovyContainer<?> mod, IObjectParser<T> handler, Supplier<Result<T>> defaultValue, Class<T> returnType, List<Class<?>[]> paramTypes, Completer completer, String documentation, TextureBinder<T> textureBinder) {
+    private ObjectMapper(String name, GroovyContainer<?> mod, IObjectParser<T> handler, Supplier<Result<T>> defaultValue, Class<T> returnType, List<Class<?>[]> paramTypes, Completer completer, String documentation, TextureBinder<T> textureBinder, @Nullable UnaryOperator<T> copier) {
         super(null);
         this.name = name;
         this.mod = mod;
@@ -68,9 +73,24 @@ public class ObjectMapper<T> extends Closure<T> implements INamed, IDocumented {
         this.completer = completer;
         this.documentation = documentation;
         this.textureBinder = textureBinder;
+        this.copier = copier;
     }
 
     public @Nullable T invoke(boolean silent, String s, Object... args) {
+        if (this.copier == null) return parse(silent, s, args);
+        List<Object> key = makeCacheKey(s, args);
+        if (key == null) return parse(silent, s, args);
+        T t = this.cache.get(key);
+        if (t == null) {
+            // errors are not cached, so they are logged every time
+            t = parse(silent, s, args);
+            if (t == null) return null;
+            this.cache.put(key, t);
+        }
+        return this.copier.apply(t);
+    }
+
+    private @Nullable T parse(boolean silent, String s, Object... args) {
         Result<T> t = Objects.requireNonNull(handler.parse(s, args), "Object mapper must return a non null result!");
         if (t.hasError()) {
             if (!silent) {
@@ -98,6 +118,59 @@ public class ObjectMapper<T> extends Closure<T> implements INamed, IDocumented {
         return t == null || t.hasError() ? null : t.getValue();
     }
 
+    /**
+     * Returns the value of a call with literal arguments in a script. The value is only parsed on the first call and then stored in the
+     * constants of the script.
+     *
+     * @param constants the constants of the script, might be null while the script class is initialized
+     * @param index     the index of the call in the constants
+     * @param s         main argument
+     * @param args      extra arguments
+     * @return the value or the default value if the value couldn't be parsed
+     */
+    @SuppressWarnings("unchecked")
+    T getConstant(@Nullable Object[] constants, int index, String s, Object... args) {
+        if (constants == null || this.copier == null) return invokeWithDefault(false, s, args);
+        T t = (T) constants[index];
+        if (t == null) {
+            t = invoke(false, s, args);
+            if (t == null) return invokeDefault();
+            constants[index] = t;
+        }
+        return this.copier.apply(t);
+    }
+
+    /**
+     * @return true if results are reused for calls with the same arguments
+     */
+    public boolean isCacheable() {
+        return this.copier != null;
+    }
+
+    void clearCache() {
+        this.cache.clear();
+    }
+
+    /**
+     * Creates a key of the arguments or returns null if any argument is not a literal value.
+     */
+    private static @Nullable List<Object> makeCacheKey(String s, Object[] args) {
+        if (s == null) return null;
+        if (args.length == 0) return Collections.singletonList(s);
+        List<Object> key = new ArrayList<>(args.length + 1);
+        key.add(s);
+        for (Object arg : args) {
+            if (arg instanceof String[] strings) {
+                key.add(Arrays.asList(strings));
+            } else if (arg instanceof String || arg instanceof Number || arg instanceof Boolean) {
+                key.add(arg);
+            } else {
+                return null;
+            }
+        }
+        return key;
+    }
+
     public GroovyContainer<?> getMod() {
         return mod;
     }
@@ -182,6 +255,7 @@ public class ObjectMapper<T> extends Closure<T> implements INamed, IDocumented {
         private Completer completer;
         private String documentation;
         private TextureBinder<T> textureBinder;
+        private UnaryOperator<T> copier;
 
         @ApiStatus.Internal
         public Builder(String name, Class<T> returnType) {
@@ -350,6 +424,28 @@ public class ObjectMapper<T> extends Closure<T> implements INamed, IDocumented {
             return this;
         }
 
+        /**
+         * Lets the mapper reuse the result of an earlier call with the same literal arguments instead of parsing it again. Only use this if
+         * the result never changes after the game has loaded. The results must be immutable, otherwise use {@link #cacheResults(UnaryOperator)}.
+         *
+         * @return this builder
+         */
+        public Builder<T> cacheResults() {
+            return cacheResults(UnaryOperator.identity());
+        }
+
+        /**
+         * Lets the mapper reuse the result of an earlier call with the same literal arguments instead of parsing it again. Only use this if
+         * the result never changes after the game has loaded.
+         *
+         * @param copier creates a copy of a result, since scripts are allowed to modify the returned object
+         * @return this builder
+         */
+        public Builder<T> cacheResults(UnaryOperator<T> copier) {
+            this.copier = copier;
+            return this;
+        }
+
         /**
          * Registers the mapper.
          *
@@ -375,7 +471,8 @@ public class ObjectMapper<T> extends Closure<T> implements INamed, IDocumented {
                     this.paramTypes,
                     this.completer,
                     this.documentation,
-                    this.textureBinder);
+                    this.textureBinder,
+                    this.copier);
             ObjectMapperManager.registerObjectMapper(this.mod, goh);
         }
     }
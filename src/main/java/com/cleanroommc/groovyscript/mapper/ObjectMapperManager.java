@@ -35,6 +35,7 @@ import net.minecraftforge.fluids.FluidStack;
 import net.minecraftforge.fml.common.registry.EntityEntry;
 import net.minecraftforge.fml.common.registry.ForgeRegistries;
 import net.minecraftforge.fml.common.registry.VillagerRegistry;
+import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.*;
@@ -82,6 +83,7 @@ public class ObjectMapperManager {
                 .addSignature(String.class)
                 .addSignature(String.class, String.class)
                 .docOfType("resource location")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("ore", IIngredient.class)
                 .parser((s, args) -> s.contains(WILDCARD) ? Result.some(OreDictWildcardIngredient.of(s)) : Result.some(new OreDictIngredient(s)))
@@ -97,17 +99,20 @@ public class ObjectMapperManager {
                 .completer(ForgeRegistries.ITEMS)
                 .docOfType("item stack")
                 .textureBinder(TextureBinder.ofItem())
+                .cacheResults(ItemStack::copy)
                 .register();
         ObjectMapper.builder("liquid", FluidStack.class)
                 .parser(ObjectMappers::parseFluidStack)
                 .completerOfNames(FluidRegistry.getRegisteredFluids()::keySet)
                 .docOfType("fluid stack")
                 .textureBinder(TextureBinder.ofFluid())
+                .cacheResults(FluidStack::copy)
                 .register();
         ObjectMapper.builder("fluid", FluidStack.class)
                 .parser(ObjectMappers::parseFluidStack)
                 .completerOfNames(FluidRegistry.getRegisteredFluids()::keySet)
                 .textureBinder(TextureBinder.ofFluid())
+                .cacheResults(FluidStack::copy)
                 .register();
         ObjectMapper.builder("block", Block.class)
                 .parser(IObjectParser.wrapForgeRegistry(ForgeRegistries.BLOCKS))
@@ -115,6 +120,7 @@ public class ObjectMapperManager {
                 .defaultValue(() -> Blocks.AIR)
                 .docOfType("block")
                 .textureBinder(TextureBinder.of(ItemStack::new, TextureBinder.ofItem()))
+                .cacheResults()
                 .register();
         ObjectMapper.builder("blockstate", IBlockState.class)
                 .parser(ObjectMappers::parseBlockState)
@@ -124,47 +130,56 @@ public class ObjectMapperManager {
                 .completer(ForgeRegistries.BLOCKS)
                 .defaultValue(() -> Blocks.AIR.getBlockState().getBaseState())
                 .docOfType("block state")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("enchantment", Enchantment.class)
                 .parser(IObjectParser.wrapForgeRegistry(ForgeRegistries.ENCHANTMENTS))
                 .completer(ForgeRegistries.ENCHANTMENTS)
                 .docOfType("enchantment")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("potion", Potion.class)
                 .parser(IObjectParser.wrapForgeRegistry(ForgeRegistries.POTIONS))
                 .completer(ForgeRegistries.POTIONS)
                 .docOfType("potion")
                 .textureBinder(TextureBinder.of(potion -> PotionUtils.addPotionToItemStack(new ItemStack(Items.POTIONITEM), PotionType.REGISTRY.getObject(potion.getRegistryName())), TextureBinder.ofItem()))
+                .cacheResults()
                 .register();
         ObjectMapper.builder("potionType", PotionType.class)
                 .parser(IObjectParser.wrapForgeRegistry(ForgeRegistries.POTION_TYPES))
                 .completer(ForgeRegistries.POTION_TYPES)
                 .docOfType("potion type")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("sound", SoundEvent.class)
                 .parser(IObjectParser.wrapForgeRegistry(ForgeRegistries.SOUND_EVENTS))
                 .completer(ForgeRegistries.SOUND_EVENTS)
                 .docOfType("sound")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("entity", EntityEntry.class)
                 .parser(IObjectParser.wrapForgeRegistry(ForgeRegistries.ENTITIES))
                 .completer(ForgeRegistries.ENTITIES)
                 .docOfType("entity entry")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("dimension", DimensionType.class)
                 .parser(IObjectParser.wrapStringGetter(DimensionType::byName))
                 .completerOfNamed(() -> Arrays.asList(DimensionType.values()), DimensionType::getName)
                 .docOfType("dimension")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("biome", Biome.class)
                 .parser(IObjectParser.wrapForgeRegistry(ForgeRegistries.BIOMES))
                 .completer(ForgeRegistries.BIOMES)
                 .docOfType("biome")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("profession", VillagerRegistry.VillagerProfession.class)
                 .parser(IObjectParser.wrapForgeRegistry(ForgeRegistries.VILLAGER_PROFESSIONS))
                 .completer(ForgeRegistries.VILLAGER_PROFESSIONS)
                 .docOfType("villager profession")
+                .cacheResults()
                 .register();
 
         final List<String> careerList = new ArrayList<>();
@@ -181,23 +196,27 @@ public class ObjectMapperManager {
                 .parser(ObjectMappers::parseVillagerCareer)
                 .completerOfNames(() -> careerList)
                 .docOfType("villager career")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("creativeTab", CreativeTabs.class)
                 .parser(ObjectMappers::parseCreativeTab)
                 .completerOfNamed(() -> Arrays.asList(CreativeTabs.CREATIVE_TAB_ARRAY), v -> ((CreativeTabsAccessor) v).getTabLabel2())
                 .defaultValue(() -> CreativeTabs.SEARCH)
                 .docOfType("creative tab")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("textformat", TextFormatting.class)
                 .parser(ObjectMappers::parseTextFormatting)
                 .completerOfNamed(() -> Arrays.asList(TextFormatting.values()), format -> format.name().toLowerCase(Locale.ROOT).replaceAll("[^a-z]", ""))
                 .defaultValue(() -> TextFormatting.RESET)
                 .docOfType("text format")
+                .cacheResults()
                 .register();
         ObjectMapper.builder("nbt", NBTTagCompound.class)
                 .parser(ObjectMappers::parseNBT)
                 .defaultValue(NBTTagCompound::new)
                 .docOfType("nbt tag")
+                .cacheResults(NBTTagCompound::copy)
                 .register();
     }
 
@@ -230,6 +249,38 @@ public class ObjectMapperManager {
         return null;
     }
 
+    /**
+     * Returns the value of an object mapper call with literal arguments. Called by calls which are injected via the groovy script
+     * transformer.
+     *
+     * @param constants the constants of the calling class
+     * @param index     the index of the call in the constants
+     * @param name      object mapper name
+     * @param mainArg   main argument
+     * @param args      extra arguments
+     * @return game object or null
+     */
+    @ApiStatus.Internal
+    public static @Nullable Object getConstant(Object[] constants, int index, String name, String mainArg, Object... args) {
+        ObjectMapper<?> objectMapper = handlers.get(name);
+        if (objectMapper != null) {
+            return objectMapper.getConstant(constants, index, mainArg, args);
+        }
+        return null;
+    }
+
+    /**
+     * Forgets the results of all earlier object mapper calls.
+     */
+    public static void clearCaches() {
+        for (ObjectMapper<?> objectMapper : handlers.values()) {
+            objectMapper.clearCache();
+        }
+        for (List<ObjectMapper<?>> conflicts : handlerConflicts.values()) {
+            conflicts.forEach(ObjectMapper::clearCache);
+        }
+    }
+
     public static boolean hasObjectMapper(String key) {
         return handlers.containsKey(key);
     }
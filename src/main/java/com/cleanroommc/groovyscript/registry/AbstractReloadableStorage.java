@@ -1,7 +1,10 @@
 package com.cleanroommc.groovyscript.registry;
 
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
+import it.unimi.dsi.fastutil.Hash;
+import it.unimi.dsi.fastutil.objects.ObjectOpenCustomHashSet;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -14,8 +17,25 @@ import java.util.Collections;
  */
 public class AbstractReloadableStorage<R> {
 
+    private static final Hash.Strategy<Object> IDENTITY_STRATEGY = new Hash.Strategy<>() {
+
+        @Override
+        public int hashCode(Object o) {
+            return System.identityHashCode(o);
+        }
+
+        @Override
+        public boolean equals(Object a, Object b) {
+            return a == b;
+        }
+    };
+
     private Collection<R> backup;
     private Collection<R> scripted;
+    // hashed view of the scripted collection, null if there is no hash strategy
+    private ObjectOpenCustomHashSet<R> scriptedIndex;
+    private Hash.Strategy<R> hashStrategy;
+    private boolean hashStrategyResolved;
 
     public AbstractReloadableStorage() {
         initBackup();
@@ -42,6 +62,20 @@ public class AbstractReloadableStorage<R> {
     @ApiStatus.Internal
     private void initScripted() {
         this.scripted = new ArrayList<>();
+        this.scriptedIndex = null;
+    }
+
+    @GroovyBlacklist
+    private @Nullable ObjectOpenCustomHashSet<R> getScriptedIndex() {
+        if (!this.hashStrategyResolved) {
+            // resolved lazily, since anonymous subclasses are not initialized in the constructor
+            this.hashStrategy = createHashStrategy();
+            this.hashStrategyResolved = true;
+        }
+        if (this.hashStrategy != null && this.scriptedIndex == null) {
+            this.scriptedIndex = new ObjectOpenCustomHashSet<>(this.scripted, this.hashStrategy);
+        }
+        return this.scriptedIndex;
     }
 
     /**
@@ -53,7 +87,12 @@ public class AbstractReloadableStorage<R> {
      */
     @GroovyBlacklist
     public boolean addBackup(R recipe) {
-        if (this.scripted.stream().anyMatch(r -> compareRecipe(r, recipe))) return false;
+        ObjectOpenCustomHashSet<R> index = getScriptedIndex();
+        if (index != null) {
+            if (index.contains(recipe)) return false;
+        } else if (this.scripted.stream().anyMatch(r -> compareRecipe(r, recipe))) {
+            return false;
+        }
         return this.backup.add(recipe);
     }
 
@@ -66,6 +105,8 @@ public class AbstractReloadableStorage<R> {
      */
     @GroovyBlacklist
     public boolean addScripted(R recipe) {
+        ObjectOpenCustomHashSet<R> index = getScriptedIndex();
+        if (index != null) index.add(recipe);
         return this.scripted.add(recipe);
     }
 
@@ -108,4 +149,31 @@ public class AbstractReloadableStorage<R> {
     protected boolean compareRecipe(R recipe, R recipe2) {
         return recipe == recipe2;
     }
+
+    /**
+     * Creates the hash strategy used to look up scripted recipes when adding a backup, which makes {@link #addBackup(Object)} O(1).
+     * The strategy must be consistent with {@link #compareRecipe}.
+     * If {@link #compareRecipe} is not overridden, recipes are compared by identity.
+     * Otherwise, this returns {@code null} and every scripted recipe is compared via {@link #compareRecipe} instead.
+     * Override this together with {@link #compareRecipe} to opt in to hashing.
+     *
+     * @return the hash strategy or {@code null} to compare recipes one by one
+     */
+    @GroovyBlacklist
+    @SuppressWarnings("unchecked")
+    protected @Nullable Hash.Strategy<R> createHashStrategy() {
+        return overridesCompareRecipe() ? null : (Hash.Strategy<R>) IDENTITY_STRATEGY;
+    }
+
+    @GroovyBlacklist
+    private boolean overridesCompareRecipe() {
+        for (Class<?> clazz = getClass(); clazz != AbstractReloadableStorage.class; clazz = clazz.getSuperclass()) {
+            try {
+                clazz.getDeclaredMethod("compareRecipe", Object.class, Object.class);
+                return true;
+            } catch (NoSuchMethodException ignored) {
+            }
+        }
+        return false;
+    }
 }
@@ -10,6 +10,7 @@ import com.cleanroommc.groovyscript.compat.mods.GroovyPropertyContainer;
 import com.cleanroommc.groovyscript.compat.mods.ModSupport;
 import com.cleanroommc.groovyscript.compat.vanilla.VanillaModule;
 import com.cleanroommc.groovyscript.core.mixin.jei.JeiProxyAccessor;
+import com.cleanroommc.groovyscript.sandbox.LoadProfiler;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import mezz.jei.Internal;
 import mezz.jei.JustEnoughItems;
@@ -26,6 +27,7 @@ import net.minecraftforge.registries.ForgeRegistry;
 import net.minecraftforge.registries.IForgeRegistry;
 import net.minecraftforge.registries.IForgeRegistryEntry;
 import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
 import sonar.core.integration.jei.JEISonarPlugin;
 
 import java.lang.reflect.InvocationTargetException;
@@ -76,7 +78,29 @@ public class ReloadableRegistryManager {
     @ApiStatus.Internal
     public static void onReload() {
         GroovyScript.reloadRunConfig(false);
-        VanillaModule.INSTANCE.onReload();
+        reloadRegistries(null);
+    }
+
+    /**
+     * Reloads the given registries in the same order as a full reload would.
+     *
+     * @param registries the registries to reload or null to reload all registries
+     */
+    @ApiStatus.Internal
+    public static void reloadRegistries(@Nullable Set<IScriptReloadable> registries) {
+        for (IScriptReloadable registry : getReloadableRegistries()) {
+            if (registries == null || registries.contains(registry)) {
+                LoadProfiler.measure(registry, true, registry::onReload);
+            }
+        }
+    }
+
+    /**
+     * @return all enabled reloadable registries of vanilla and loaded mods in the order they are reloaded
+     */
+    @ApiStatus.Internal
+    public static List<IScriptReloadable> getReloadableRegistries() {
+        List<IScriptReloadable> registries = new ArrayList<>(VanillaModule.INSTANCE.getReloadableRegistries());
         ModSupport.getAllContainers()
                 .stream()
                 .filter(GroovyContainer::isLoaded)
@@ -87,7 +111,20 @@ public class ReloadableRegistryManager {
                 .filter(INamed::isEnabled)
                 .filter(IScriptReloadable.class::isInstance)
                 .map(IScriptReloadable.class::cast)
-                .forEach(IScriptReloadable::onReload);
+                .forEach(registries::add);
+        return registries;
+    }
+
+    /**
+     * Notifies the reload tracker that a script modified the given registry.
+     *
+     * @param registry a reloadable registry or a forge registry
+     */
+    @ApiStatus.Internal
+    public static void onRegistryModified(Object registry) {
+        if (GroovyScript.isSandboxLoaded()) {
+            GroovyScript.getSandbox().getReloadTracker().onWrite(registry);
+        }
     }
 
     @ApiStatus.Internal
@@ -102,7 +139,7 @@ public class ReloadableRegistryManager {
                 .filter(INamed::isEnabled)
                 .filter(IScriptReloadable.class::isInstance)
                 .map(IScriptReloadable.class::cast)
-                .forEach(IScriptReloadable::afterScriptLoad);
+                .forEach(registry -> LoadProfiler.measure(registry, false, registry::afterScriptLoad));
         VanillaModule.INSTANCE.afterScriptLoad();
         unfreezeForgeRegistries();
     }
@@ -112,14 +149,20 @@ public class ReloadableRegistryManager {
     }
 
     public static <V extends IForgeRegistryEntry<V>> void addRegistryEntry(IForgeRegistry<V> registry, ResourceLocation name, V entry) {
-        ((IReloadableForgeRegistry<V>) registry).groovyScript$registerEntry(entry.setRegistryName(name));
+        addRegistryEntry(registry, entry.setRegistryName(name));
     }
 
     public static <V extends IForgeRegistryEntry<V>> void addRegistryEntry(IForgeRegistry<V> registry, V entry) {
         if (entry.getRegistryName() == null) {
             throw new IllegalArgumentException("Expected the name to have a registry name. Add it or use a different method!");
         }
-        ((IReloadableForgeRegistry<V>) registry).groovyScript$registerEntry(entry);
+        onRegistryModified(registry);
+        LoadProfiler.onRegistryWrite(registry, false);
+        flushPendingRemovals(registry);
+        V added = ((IReloadableForgeRegistry<V>) registry).groovyScript$registerEntry(entry);
+        if (added == entry && registry == ForgeRegistries.RECIPES) {
+            VanillaModule.crafting.onRecipeAdded((IRecipe) entry);
+        }
     }
 
     public static <V extends IForgeRegistryEntry<V>> void removeRegistryEntry(IForgeRegistry<V> registry, String name) {
@@ -127,14 +170,25 @@ public class ReloadableRegistryManager {
     }
 
     public static <V extends IForgeRegistryEntry<V>> void removeRegistryEntry(IForgeRegistry<V> registry, ResourceLocation name) {
+        onRegistryModified(registry);
+        LoadProfiler.onRegistryWrite(registry, true);
+        flushPendingRemovals(registry);
         ((IReloadableForgeRegistry<V>) registry).groovyScript$removeEntry(name);
     }
 
+    private static void flushPendingRemovals(IForgeRegistry<?> registry) {
+        // removals by output and input are deferred and need to happen before the registry is modified otherwise
+        if (registry == ForgeRegistries.RECIPES) {
+            VanillaModule.crafting.flushPendingRemovals();
+        }
+    }
+
     public static <V extends IForgeRegistryEntry<V>> Supplier<V> getDummySupplier(Class<V> registryClass) {
         return (Supplier<V>) registryDummies.getOrDefault(registryClass, () -> null);
     }
 
     public static boolean hasNonDummyRecipe(ResourceLocation rl) {
+        VanillaModule.crafting.flushPendingRemovals();
         IRecipe recipe = ForgeRegistries.RECIPES.getValue(rl);
         return recipe != null && recipe.canFit(1000, 1000);
     }
@@ -4,10 +4,13 @@ import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.cleanroommc.groovyscript.api.documentation.annotations.Example;
 import com.cleanroommc.groovyscript.api.documentation.annotations.MethodDescription;
 import com.cleanroommc.groovyscript.helper.SimpleObjectStream;
+import it.unimi.dsi.fastutil.objects.ReferenceLinkedOpenHashSet;
+import it.unimi.dsi.fastutil.objects.ReferenceOpenHashSet;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.Collection;
+import java.util.Set;
 
 /**
  * Boilerplate code for a registry where the registry is a mutable Collection that stores recipes of type {@link R}.
@@ -48,6 +51,27 @@ public abstract class StandardListRegistry<R> extends VirtualizedRegistry<R> {
         return recipe != null && getRecipes().removeIf(r -> r == recipe) && doAddBackup(recipe);
     }
 
+    /**
+     * Removes all given recipes with a single pass over {@link #getRecipes()} instead of one pass per recipe.
+     * Recipes are matched by identity, like {@link #remove(R)}.
+     *
+     * @param recipes the recipes to remove
+     * @return the recipes which were removed
+     */
+    @GroovyBlacklist
+    protected Collection<R> removeBatch(Collection<R> recipes) {
+        Set<R> toRemove = new ReferenceOpenHashSet<>(recipes);
+        // keep the registry order, so reloading restores the recipes in the same order as sequential removals
+        Set<R> removed = new ReferenceLinkedOpenHashSet<>();
+        getRecipes().removeIf(r -> {
+            if (r == null || !toRemove.contains(r)) return false;
+            removed.add(r);
+            return true;
+        });
+        removed.forEach(this::doAddBackup);
+        return removed;
+    }
+
     @MethodDescription(priority = 2000, example = @Example(commented = true))
     public void removeAll() {
         var recipes = getRecipes();
@@ -57,6 +81,6 @@ public abstract class StandardListRegistry<R> extends VirtualizedRegistry<R> {
 
     @MethodDescription(type = MethodDescription.Type.QUERY)
     public SimpleObjectStream<R> streamRecipes() {
-        return new SimpleObjectStream<>(getRecipes()).setRemover(this::remove);
+        return new SimpleObjectStream<>(getRecipes()).setRemover(this::remove).setBatchRemover(this::removeBatch);
     }
 }
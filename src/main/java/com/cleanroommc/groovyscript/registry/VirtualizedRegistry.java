@@ -2,6 +2,7 @@ package com.cleanroommc.groovyscript.registry;
 
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.cleanroommc.groovyscript.api.IScriptReloadable;
+import com.cleanroommc.groovyscript.sandbox.LoadProfiler;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
@@ -85,12 +86,16 @@ public abstract class VirtualizedRegistry<R> extends NamedRegistry implements IS
     @ApiStatus.Experimental
     @GroovyBlacklist
     public boolean doAddBackup(R recipe) {
+        ReloadableRegistryManager.onRegistryModified(this);
+        LoadProfiler.onRegistryWrite(this, true);
         return recipeStorage.addBackup(recipe);
     }
 
     @ApiStatus.Experimental
     @GroovyBlacklist
     public boolean doAddScripted(R recipe) {
+        ReloadableRegistryManager.onRegistryModified(this);
+        LoadProfiler.onRegistryWrite(this, false);
         return recipeStorage.addScripted(recipe);
     }
 
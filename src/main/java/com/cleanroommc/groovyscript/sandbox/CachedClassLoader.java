@@ -3,6 +3,7 @@ package com.cleanroommc.groovyscript.sandbox;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import net.minecraft.launchwrapper.Launch;
 
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 public class CachedClassLoader extends ClassLoader {
@@ -20,6 +21,13 @@ public class CachedClassLoader extends ClassLoader {
         return clz;
     }
 
+    public Class<?> defineClass(String name, ByteBuffer bytes) {
+        Class<?> clz = super.defineClass(name, bytes, null);
+        resolveClass(clz);
+        this.cache.put(clz.getName(), clz);
+        return clz;
+    }
+
     public void clearCache() {
         this.cache.clear();
     }
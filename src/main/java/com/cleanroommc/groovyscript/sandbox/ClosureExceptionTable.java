@@ -0,0 +1,145 @@
+package com.cleanroommc.groovyscript.sandbox;
+
+import com.cleanroommc.groovyscript.api.GroovyLog;
+import groovy.lang.Closure;
+import org.codehaus.groovy.runtime.MethodClosure;
+import org.jetbrains.annotations.ApiStatus;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Remembers which exceptions were thrown by closures, so that an exception which is thrown repeatedly, for example every tick by an
+ * event listener, is only logged once.
+ * <p>
+ * Exceptions are identified by a fingerprint of the exception class and the closure which threw it. The closure class is unique for
+ * each closure in a script, so it stands in for the throw site without creating the stack trace, which is the expensive part of a
+ * repeated failure. The stack trace is only read for the first occurrence. Different exceptions of the same class thrown by the same
+ * closure are counted as one.
+ * <p>
+ * The table is safe to use from multiple threads and holds at most {@link #MAX_ENTRIES} fingerprints. Exceptions with new fingerprints
+ * are still logged once the table is full, but their occurrences are no longer counted.
+ */
+@ApiStatus.Internal
+public class ClosureExceptionTable {
+
+    public static final int MAX_ENTRIES = 512;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final LongAdder untracked = new LongAdder();
+    private final AtomicBoolean warnedFull = new AtomicBoolean();
+
+    /**
+     * Records an occurrence of the exception.
+     *
+     * @param closure the closure which threw the exception
+     * @param t       the thrown exception
+     * @return true if this is the first occurrence and the exception should be logged
+     */
+    public boolean record(Closure<?> closure, Throwable t) {
+        long fingerprint = fingerprint(t.getClass(), closure);
+        Entry entry = this.entries.get(fingerprint);
+        if (entry != null) {
+            entry.count.increment();
+            return false;
+        }
+        if (this.entries.size() >= MAX_ENTRIES) {
+            this.untracked.increment();
+            if (this.warnedFull.compareAndSet(false, true)) {
+                GroovyLog.get().warn("More than {} different closure exceptions occurred. New exceptions are no longer de-duplicated.", MAX_ENTRIES);
+            }
+            return true;
+        }
+        Entry newEntry = new Entry(t, t.getStackTrace());
+        entry = this.entries.putIfAbsent(fingerprint, newEntry);
+        if (entry != null) {
+            // another thread was faster
+            entry.count.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return all recorded exceptions, most frequent first
+     */
+    public List<Entry> getEntries() {
+        List<Entry> list = new ArrayList<>(this.entries.values());
+        list.sort(Comparator.comparingLong(Entry::getCount).reversed());
+        return list;
+    }
+
+    /**
+     * @return how many exceptions occurred while the table was full
+     */
+    public long getUntrackedCount() {
+        return this.untracked.sum();
+    }
+
+    public void clear() {
+        this.entries.clear();
+        this.untracked.reset();
+        this.warnedFull.set(false);
+    }
+
+    private static long fingerprint(Class<?> type, Closure<?> closure) {
+        long hash = type.getName().hashCode();
+        hash = hash * 31 + closure.getClass().getName().hashCode();
+        // all method pointers share a class
+        if (closure instanceof MethodClosure methodClosure) {
+            hash = hash * 31 + methodClosure.getOwner().getClass().getName().hashCode();
+            hash = hash * 31 + methodClosure.getMethod().hashCode();
+        }
+        return hash;
+    }
+
+    public static class Entry {
+
+        private final String type;
+        private final String message;
+        private final String location;
+        private final LongAdder count = new LongAdder();
+
+        private Entry(Throwable t, StackTraceElement[] stackTrace) {
+            this.type = t.getClass().getName();
+            this.message = t.getMessage();
+            this.location = findLocation(stackTrace);
+            this.count.increment();
+        }
+
+        /**
+         * The location is the first frame in a script or the top frame if there is none.
+         */
+        private static String findLocation(StackTraceElement[] stackTrace) {
+            if (stackTrace.length == 0) return "unknown";
+            for (StackTraceElement element : stackTrace) {
+                String file = element.getFileName();
+                if (file != null && (file.endsWith(".groovy") || file.endsWith(".gvy") || file.endsWith(".gy") || file.endsWith(".gsh"))) {
+                    return file + ":" + element.getLineNumber();
+                }
+            }
+            return stackTrace[0].toString();
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public String getLocation() {
+            return location;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.cleanroommc.groovyscript.sandbox;
+
+import groovy.lang.Closure;
+import org.codehaus.groovy.runtime.InvokerInvocationException;
+import org.codehaus.groovy.runtime.metaclass.ClosureMetaClass;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Calls the {@code doCall} method of closures compiled from scripts directly through a cached {@link MethodHandle} instead of looking it
+ * up via the meta class on every call.
+ * <p>
+ * Only calls which the meta class would dispatch to the same method take the fast path. That is a {@code doCall} method with exactly as
+ * many reference type parameters as arguments, where every typed parameter receives a non-null instance of its type. Everything else,
+ * like argument coercion, implicit {@code it} parameters, default parameters or custom meta classes, still goes through the meta class.
+ */
+@ApiStatus.Internal
+public final class ClosureInvoker {
+
+    private static final int MAX_ARITY = 8;
+
+    private static final ClassValue<Invoker[]> INVOKERS = new ClassValue<>() {
+
+        @Override
+        protected Invoker[] computeValue(Class<?> type) {
+            return createInvokers(type);
+        }
+    };
+
+    private ClosureInvoker() {}
+
+    /**
+     * Calls the closure with the given arguments. Exceptions thrown by the closure are wrapped in an {@link InvokerInvocationException}
+     * just like the meta class does.
+     */
+    public static Object invoke(Closure<?> closure, Object[] args) {
+        Invoker invoker = findInvoker(closure, args);
+        if (invoker != null) {
+            try {
+                return invoker.handle.invokeExact((Object) closure, args);
+            } catch (Throwable t) {
+                throw new InvokerInvocationException(t);
+            }
+        }
+        return closure.getMetaClass().invokeMethod(closure, "doCall", args);
+    }
+
+    private static @Nullable Invoker findInvoker(Closure<?> closure, Object[] args) {
+        if (args.length > MAX_ARITY) return null;
+        Invoker invoker = INVOKERS.get(closure.getClass())[args.length];
+        if (invoker == null || closure.getMetaClass().getClass() != ClosureMetaClass.class) return null;
+        return invoker.accepts(args) ? invoker : null;
+    }
+
+    private static Invoker[] createInvokers(Class<?> type) {
+        Invoker[] invokers = new Invoker[MAX_ARITY + 1];
+        String name = type.getName();
+        // groovy's own closures like method or curried closures have special call logic
+        if (name.startsWith("groovy.") || name.startsWith("org.codehaus.groovy.") || name.startsWith("org.apache.groovy.")) {
+            return invokers;
+        }
+        boolean[] ambiguous = new boolean[MAX_ARITY + 1];
+        for (Method method : type.getDeclaredMethods()) {
+            if (!method.getName().equals("doCall") || !Modifier.isPublic(method.getModifiers()) || Modifier.isStatic(method.getModifiers()) || method.isVarArgs()) {
+                continue;
+            }
+            int arity = method.getParameterCount();
+            if (arity > MAX_ARITY) continue;
+            if (invokers[arity] != null) {
+                ambiguous[arity] = true;
+                continue;
+            }
+            invokers[arity] = createInvoker(method);
+        }
+        for (int i = 0; i <= MAX_ARITY; i++) {
+            // let the meta class choose between overloads
+            if (ambiguous[i]) invokers[i] = null;
+        }
+        return invokers;
+    }
+
+    private static @Nullable Invoker createInvoker(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        for (Class<?> type : types) {
+            if (type.isPrimitive()) return null;
+        }
+        try {
+            method.setAccessible(true);
+            MethodHandle handle = MethodHandles.lookup().unreflect(method)
+                    .asType(MethodType.genericMethodType(types.length + 1))
+                    .asSpreader(Object[].class, types.length);
+            return new Invoker(handle, types);
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static class Invoker {
+
+        private final MethodHandle handle;
+        private final Class<?>[] types;
+
+        private Invoker(MethodHandle handle, Class<?>[] types) {
+            this.handle = handle;
+            this.types = types;
+        }
+
+        private boolean accepts(Object[] args) {
+            for (int i = 0; i < args.length; i++) {
+                Class<?> type = this.types[i];
+                if (type != Object.class && !type.isInstance(args[i])) return false;
+            }
+            return true;
+        }
+    }
+}
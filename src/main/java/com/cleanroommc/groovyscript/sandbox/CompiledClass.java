@@ -6,6 +6,7 @@ import org.apache.commons.lang3.builder.ToStringBuilder;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 
 class CompiledClass {
@@ -16,6 +17,10 @@ class CompiledClass {
     String name;
     byte[] data;
     Class<?> clazz;
+    // location of the class bytes in the cache pack, only used if the cache is packed
+    long packOffset = -1;
+    int packLength;
+    ByteBuffer packedData;
 
     public CompiledClass(String path, String name) {
         this.path = path;
@@ -24,6 +29,7 @@ class CompiledClass {
 
     public void onCompile(byte[] data, Class<?> clazz, String basePath) {
         this.data = data;
+        clearPackedData();
         onCompile(clazz, basePath);
     }
 
@@ -34,7 +40,24 @@ class CompiledClass {
             GroovyLog.get().errorMC("The class doesnt seem to be compiled yet. (" + name + ")");
             return;
         }
-        if (!GroovyScriptSandbox.ENABLE_CACHE) return;
+        writeData(basePath);
+    }
+
+    /**
+     * Called when the class was compiled, but not yet defined. The class will be defined from the class bytes on
+     * {@link #ensureLoaded(CachedClassLoader, String)}.
+     */
+    public void onCompile(byte[] data, String name, String basePath) {
+        this.data = data;
+        this.name = name;
+        this.clazz = null;
+        clearPackedData();
+        writeData(basePath);
+    }
+
+    private void writeData(String basePath) {
+        // packed classes are written together with the index
+        if (!GroovyScriptSandbox.ENABLE_CACHE || GroovyScriptSandbox.PACK_CACHE) return;
         try {
             File file = getDataFile(basePath);
             file.getParentFile().mkdirs();
@@ -49,12 +72,15 @@ class CompiledClass {
 
     protected void ensureLoaded(CachedClassLoader classLoader, String basePath) {
         if (this.clazz == null) {
-            this.clazz = classLoader.defineClass(this.name, this.data);
+            this.clazz = this.data != null || this.packedData == null
+                         ? classLoader.defineClass(this.name, this.data)
+                         : classLoader.defineClass(this.name, this.packedData.duplicate());
         }
     }
 
     public boolean readData(String basePath) {
         if (this.data != null && GroovyScriptSandbox.ENABLE_CACHE) return true;
+        if (this.packedData != null) return true;
         File file = getDataFile(basePath);
         if (!file.exists()) return false;
         try {
@@ -66,6 +92,7 @@ class CompiledClass {
     }
 
     public void deleteCache(String cachePath) {
+        clearPackedData();
         try {
             Files.deleteIfExists(getDataFile(cachePath).toPath());
         } catch (IOException e) {
@@ -73,6 +100,12 @@ class CompiledClass {
         }
     }
 
+    private void clearPackedData() {
+        this.packOffset = -1;
+        this.packLength = 0;
+        this.packedData = null;
+    }
+
     protected File getDataFile(String basePath) {
         return FileUtil.makeFile(basePath, FileUtil.getParent(this.path), this.name + CLASS_SUFFIX);
     }
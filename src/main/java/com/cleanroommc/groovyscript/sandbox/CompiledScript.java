@@ -2,13 +2,17 @@ package com.cleanroommc.groovyscript.sandbox;
 
 import com.cleanroommc.groovyscript.api.GroovyLog;
 import com.cleanroommc.groovyscript.helper.JsonHelper;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Files;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import org.apache.commons.lang3.builder.ToStringBuilder;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -16,6 +20,7 @@ class CompiledScript extends CompiledClass {
 
     final List<CompiledClass> innerClasses = new ArrayList<>();
     long lastEdited;
+    String contentHash;
     List<String> preprocessors;
 
     public CompiledScript(String path, long lastEdited) {
@@ -42,6 +47,32 @@ class CompiledScript extends CompiledClass {
         return comp;
     }
 
+    /**
+     * Checks if the script file was not edited since it was compiled. If the last modified time changed, the content hash is compared
+     * instead. This way the cache stays valid if a file is only touched, like on a git checkout or when the cache is shipped with a pack.
+     *
+     * @param file         the script file
+     * @param lastModified the last modified time of the script file
+     * @return true if the compiled class is still valid for the script
+     */
+    public boolean isUpToDate(File file, long lastModified) {
+        if (lastModified == this.lastEdited) return true;
+        if (this.contentHash == null) return lastModified <= this.lastEdited;
+        if (this.contentHash.equals(hashFile(file))) {
+            this.lastEdited = lastModified;
+            return true;
+        }
+        return false;
+    }
+
+    public static @Nullable String hashFile(File file) {
+        try {
+            return Files.asByteSource(file).hash(Hashing.murmur3_128()).toString();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     public void ensureLoaded(CachedClassLoader classLoader, String basePath) {
         for (CompiledClass comp : this.innerClasses) {
             if (comp.clazz == null) {
@@ -60,6 +91,9 @@ class CompiledScript extends CompiledClass {
         jsonEntry.addProperty("name", this.name);
         jsonEntry.addProperty("path", this.path);
         jsonEntry.addProperty("lm", this.lastEdited);
+        if (this.contentHash != null) {
+            jsonEntry.addProperty("hash", this.contentHash);
+        }
         if (!this.innerClasses.isEmpty()) {
             JsonArray inner = new JsonArray();
             for (CompiledClass comp : this.innerClasses) {
@@ -83,6 +117,7 @@ class CompiledScript extends CompiledClass {
                 JsonHelper.getString(json, null, "name"),
                 json.get("lm").getAsLong());
         if (new File(scriptRoot, cs.path).exists()) {
+            cs.contentHash = JsonHelper.getString(json, null, "hash");
             if (json.has("inner")) {
                 for (JsonElement element : json.getAsJsonArray("inner")) {
                     cs.innerClasses.add(new CompiledClass(cs.path, element.getAsString()));
@@ -121,6 +156,7 @@ class CompiledScript extends CompiledClass {
                 .append("path", path)
                 .append("innerClasses", innerClasses)
                 .append("lastEdited", lastEdited)
+                .append("contentHash", contentHash)
                 .toString();
     }
 }
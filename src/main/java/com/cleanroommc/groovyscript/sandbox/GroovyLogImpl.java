@@ -18,11 +18,11 @@ import org.jetbrains.annotations.Nullable;
 import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Date;
 import java.util.List;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
@@ -35,9 +35,13 @@ public class GroovyLogImpl implements GroovyLog {
     public static final GroovyLogImpl LOG = new GroovyLogImpl();
 
     private static final Logger logger = LogManager.getLogger("GroovyLog");
+    // DateTimeFormatter is thread safe unlike SimpleDateFormat
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("[HH:mm:ss]");
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("dd.MM.yyyy");
+    private static final ThreadLocal<String> sourceOverride = new ThreadLocal<>();
     private final Path logFilePath;
+    private LogFileWriter fileWriter;
     private PrintWriter printWriter;
-    private final DateFormat timeFormat = new SimpleDateFormat("[HH:mm:ss]");
     private List<String> errors = new ArrayList<>();
 
     private GroovyLogImpl() {
@@ -45,14 +49,42 @@ public class GroovyLogImpl implements GroovyLog {
         File logFile = new File(minecraftHome, "logs" + File.separator + getLogFileName());
         this.logFilePath = logFile.toPath();
         this.printWriter = setupLog(logFile);
+        // write queued lines before the jvm exits, for example after a crash
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "GroovyLog Flush"));
     }
 
     public void cleanLog() {
+        if (this.fileWriter != null) {
+            try {
+                this.fileWriter.close();
+            } catch (IOException e) {
+                GroovyScript.LOGGER.throwing(e);
+            }
+        }
         this.printWriter = setupLog(this.logFilePath.toFile());
     }
 
+    /**
+     * Writes all queued lines to the log file and waits until they are written. Only needed if async logging is enabled.
+     */
+    @GroovyBlacklist
+    public void flush() {
+        if (this.fileWriter != null) {
+            this.fileWriter.flushToDisk();
+        }
+    }
+
+    /**
+     * @return how often logging had to wait, because the async log writer couldn't keep up
+     */
+    @GroovyBlacklist
+    public long getBackpressureCount() {
+        return this.fileWriter == null ? 0 : this.fileWriter.getBackpressureCount();
+    }
+
     private PrintWriter setupLog(File logFile) {
         PrintWriter writer;
+        this.fileWriter = null;
         try {
             // delete file if it exists
             if (logFile.exists() && !logFile.isDirectory()) {
@@ -60,14 +92,14 @@ public class GroovyLogImpl implements GroovyLog {
             }
             // create file
             Files.createFile(logFilePath);
-            // create writer which automatically flushes on write
-            writer = new PrintWriter(new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(logFile.toPath()))), true);
+            // create writer which automatically flushes on write (or hands the line to the log writer thread)
+            this.fileWriter = new LogFileWriter(new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(logFile.toPath()))));
+            writer = new PrintWriter(this.fileWriter, true);
         } catch (IOException e) {
             GroovyScript.LOGGER.throwing(e);
             writer = new PrintWriter(System.out);
         }
-        DateFormat dateFormat = new SimpleDateFormat("dd.MM.yyyy");
-        writer.println("============  GroovyLog  ====  " + dateFormat.format(new Date()) + "  ============");
+        writer.println("============  GroovyLog  ====  " + DATE_FORMAT.format(LocalDate.now()) + "  ============");
         writer.println("GroovyScript version: " + GroovyScript.VERSION);
         return writer;
     }
@@ -299,10 +331,34 @@ public class GroovyLogImpl implements GroovyLog {
     }
 
     private String formatLine(String level, String msg) {
-        return timeFormat.format(new Date()) + (FMLCommonHandler.instance().getEffectiveSide().isClient() ? " [CLIENT/" : " [SERVER/") + level + "]" + " [" + getSource() + "]: " + msg;
+        return TIME_FORMAT.format(LocalTime.now()) + (FMLCommonHandler.instance().getEffectiveSide().isClient() ? " [CLIENT/" : " [SERVER/") + level + "]" + " [" + getSource() + "]: " + msg;
+    }
+
+    /**
+     * Runs an action and logs all its messages with the given source instead of the current script. Used for messages which are posted
+     * after the script which caused them finished.
+     *
+     * @param source the source from {@link #getSource()} at the time the message was caused
+     * @param action the action which logs the messages
+     */
+    @GroovyBlacklist
+    public void withSource(String source, Runnable action) {
+        String previous = sourceOverride.get();
+        sourceOverride.set(source);
+        try {
+            action.run();
+        } finally {
+            sourceOverride.set(previous);
+        }
     }
 
-    private String getSource() {
+    /**
+     * @return the current script and in debug mode the line in the script, or the active mod if no script is running
+     */
+    @GroovyBlacklist
+    public String getSource() {
+        String override = sourceOverride.get();
+        if (override != null) return override;
         String source = GroovyScript.isSandboxLoaded() ? GroovyScript.getSandbox().getCurrentScript() : null;
         if (source == null) {
             ModContainer mod = Loader.instance().activeModContainer();
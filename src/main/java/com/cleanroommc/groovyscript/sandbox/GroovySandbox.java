@@ -112,6 +112,8 @@ public abstract class GroovySandbox {
     protected void load(GroovyScriptEngine engine, Binding binding, Set<File> executedClasses, boolean run) {
         // load and run any configured class files
         loadClassScripts(engine, binding, executedClasses, run);
+        // give implementations the chance to compile scripts ahead of time
+        precompileScripts(engine, executedClasses);
         // now run all script files
         loadScripts(engine, binding, executedClasses, run);
     }
@@ -193,6 +195,15 @@ public abstract class GroovySandbox {
     @ApiStatus.OverrideOnly
     protected void preRun() {}
 
+    /**
+     * Called after all class files are loaded and before any script file is loaded.
+     *
+     * @param engine          the script engine which will load the scripts
+     * @param executedClasses class files which were already executed
+     */
+    @ApiStatus.OverrideOnly
+    protected void precompileScripts(GroovyScriptEngine engine, Set<File> executedClasses) {}
+
     @ApiStatus.OverrideOnly
     protected boolean shouldRunFile(File file) {
         return true;
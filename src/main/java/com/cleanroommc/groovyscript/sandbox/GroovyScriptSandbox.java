@@ -1,17 +1,25 @@
 package com.cleanroommc.groovyscript.sandbox;
 
 import com.cleanroommc.groovyscript.GroovyScript;
+import com.cleanroommc.groovyscript.GroovyScriptConfig;
 import com.cleanroommc.groovyscript.api.GroovyBlacklist;
 import com.cleanroommc.groovyscript.api.GroovyLog;
+import com.cleanroommc.groovyscript.api.IScriptReloadable;
+import com.cleanroommc.groovyscript.compat.mods.GroovyContainer;
 import com.cleanroommc.groovyscript.compat.mods.ModSupport;
+import com.cleanroommc.groovyscript.compat.vanilla.CraftingRecipeIndex;
+import com.cleanroommc.groovyscript.compat.vanilla.VanillaModule;
 import com.cleanroommc.groovyscript.event.GroovyEventManager;
 import com.cleanroommc.groovyscript.event.GroovyReloadEvent;
 import com.cleanroommc.groovyscript.event.ScriptRunEvent;
 import com.cleanroommc.groovyscript.helper.GroovyHelper;
 import com.cleanroommc.groovyscript.helper.JsonHelper;
+import com.cleanroommc.groovyscript.mapper.ObjectMapperManager;
 import com.cleanroommc.groovyscript.registry.ReloadableRegistryManager;
 import com.cleanroommc.groovyscript.sandbox.transformer.GroovyScriptCompiler;
 import com.cleanroommc.groovyscript.sandbox.transformer.GroovyScriptEarlyCompiler;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
@@ -23,20 +31,30 @@ import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import net.minecraft.util.math.MathHelper;
 import net.minecraftforge.common.MinecraftForge;
-import org.apache.commons.io.FileUtils;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
 import org.apache.groovy.internal.util.UncheckedThrow;
+import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.CompilerConfiguration;
+import org.codehaus.groovy.control.Phases;
 import org.codehaus.groovy.control.SourceUnit;
+import org.codehaus.groovy.runtime.IOGroovyMethods;
 import org.codehaus.groovy.runtime.InvokerInvocationException;
+import org.codehaus.groovy.tools.GroovyClass;
 import org.codehaus.groovy.vmplugin.VMPlugin;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.File;
-import java.io.IOException;
+import java.io.*;
 import java.net.URL;
+import java.net.URLConnection;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
 
 public class GroovyScriptSandbox extends GroovySandbox {
 
@@ -44,7 +62,7 @@ public class GroovyScriptSandbox extends GroovySandbox {
      * Changing this number will force the cache to be deleted and every script has to be recompiled.
      * Useful when changes to the compilation process were made.
      */
-    public static final int CACHE_VERSION = 3;
+    public static final int CACHE_VERSION = 4;
     /**
      * Setting this to false will cause compiled classes to never be cached.
      * As a side effect some compilation behaviour might change. Can be useful for debugging.
@@ -55,11 +73,25 @@ public class GroovyScriptSandbox extends GroovySandbox {
      * Useful for debugging.
      */
     public static final boolean DELETE_CACHE_ON_RUN = Boolean.parseBoolean(System.getProperty("groovyscript.disable_cache"));
+    /**
+     * Setting this to true will store all compiled classes and the index in a single memory mapped file instead of one file per class.
+     */
+    public static final boolean PACK_CACHE = Boolean.parseBoolean(System.getProperty("groovyscript.pack_cache"));
+    /**
+     * The maximum amount of threads used to compile scripts without valid cache before they are executed.
+     * A value smaller than 2 disables parallel compilation.
+     */
+    public static final int COMPILE_THREADS = Integer.getInteger("groovyscript.compile_threads", Math.min(8, Runtime.getRuntime().availableProcessors() - 1));
+
+    private static final String INDEX_FILE = "_index.json";
 
     private final File cacheRoot;
     private final File scriptRoot;
-    private final Map<List<StackTraceElement>, AtomicInteger> storedExceptions;
+    private final ClosureExceptionTable closureExceptions = new ClosureExceptionTable();
     private final Map<String, CompiledScript> index = new Object2ObjectOpenHashMap<>();
+    private final ScriptCachePack pack;
+    private final ScriptReloadTracker reloadTracker;
+    private String environment;
 
     private LoadStage currentLoadStage;
 
@@ -68,6 +100,8 @@ public class GroovyScriptSandbox extends GroovySandbox {
         super(SandboxData.getRootUrls());
         this.scriptRoot = SandboxData.getScriptFile();
         this.cacheRoot = SandboxData.getCachePath();
+        this.pack = new ScriptCachePack(this.cacheRoot);
+        this.reloadTracker = new ScriptReloadTracker(this.scriptRoot);
         registerBinding("Mods", ModSupport.INSTANCE);
         registerBinding("Log", GroovyLog.get());
         registerBinding("EventManager", GroovyEventManager.INSTANCE);
@@ -104,19 +138,45 @@ public class GroovyScriptSandbox extends GroovySandbox {
                 "com.cleanroommc.groovyscript.event.EventBusType",
                 "net.minecraftforge.fml.relauncher.Side",
                 "net.minecraftforge.fml.relauncher.SideOnly");
-        this.storedExceptions = new Object2ObjectOpenHashMap<>();
-        readIndex();
+    }
+
+    /**
+     * Creates a hash of everything besides the script content which changes the compiled classes. Scripts compile differently depending
+     * on which compat is loaded, so the versions of all mods with compat are included. Only the script paths relative to the script root
+     * are stored in the cache, which makes it shareable between machines with the same environment.
+     */
+    private static String computeEnvironmentHash() {
+        List<String> mods = new ArrayList<>();
+        mods.add(GroovyScript.ID + '@' + GroovyScript.VERSION);
+        for (GroovyContainer<?> container : ModSupport.getAllContainers()) {
+            if (!container.isLoaded()) continue;
+            ModContainer mod = Loader.instance().getIndexedModList().get(container.getModId());
+            mods.add(container.getModId() + '@' + (mod == null ? "" : mod.getVersion()));
+        }
+        Collections.sort(mods);
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        for (String mod : mods) {
+            hasher.putString(mod, StandardCharsets.UTF_8);
+        }
+        return hasher.hash().toString();
     }
 
     private void readIndex() {
         this.index.clear();
-        JsonElement jsonElement = JsonHelper.loadJson(new File(this.cacheRoot, "_index.json"));
+        // external compat is registered after the sandbox is created, so the environment can only be computed now
+        this.environment = computeEnvironmentHash();
+        if (PACK_CACHE) {
+            readPack();
+            return;
+        }
+        JsonElement jsonElement = JsonHelper.loadJson(new File(this.cacheRoot, INDEX_FILE));
         if (jsonElement == null || !jsonElement.isJsonObject()) return;
         JsonObject json = jsonElement.getAsJsonObject();
         int cacheVersion = json.get("version").getAsInt();
         String java = json.has("java") ? json.get("java").getAsString() : "";
-        if (cacheVersion != CACHE_VERSION || !java.equals(VMPlugin.getJavaVersion())) {
-            // cache version changed -> force delete cache
+        String environment = json.has("environment") ? json.get("environment").getAsString() : "";
+        if (cacheVersion != CACHE_VERSION || !java.equals(VMPlugin.getJavaVersion()) || !environment.equals(this.environment)) {
+            // cache version, java version or loaded compat changed -> force delete cache
             deleteScriptCache();
             return;
         }
@@ -130,21 +190,55 @@ public class GroovyScriptSandbox extends GroovySandbox {
         }
     }
 
+    private void readPack() {
+        List<CompiledScript> scripts;
+        try {
+            scripts = this.pack.read(this.scriptRoot.getPath(), this.environment);
+        } catch (IOException e) {
+            GroovyScript.LOGGER.error("Failed to read script cache pack", e);
+            scripts = null;
+        }
+        if (scripts == null) {
+            // cache version, java version or loaded compat changed or pack is corrupted -> force delete cache
+            deleteScriptCache();
+            return;
+        }
+        for (CompiledScript cs : scripts) {
+            this.index.put(cs.path, cs);
+        }
+    }
+
     private void writeIndex() {
         if (!ENABLE_CACHE) return;
+        if (PACK_CACHE) {
+            try {
+                this.pack.write(this.index.values(), this.environment);
+            } catch (IOException e) {
+                GroovyScript.LOGGER.error("Failed to write script cache pack", e);
+            }
+            return;
+        }
         JsonObject json = new JsonObject();
         json.addProperty("!DANGER!", "DO NOT EDIT THIS FILE!!!");
         json.addProperty("version", CACHE_VERSION);
         json.addProperty("java", VMPlugin.getJavaVersion());
+        json.addProperty("environment", this.environment);
         JsonArray index = new JsonArray();
         json.add("index", index);
         for (Map.Entry<String, CompiledScript> entry : this.index.entrySet()) {
             index.add(entry.getValue().toJson());
         }
-        JsonHelper.saveJson(new File(this.cacheRoot, "_index.json"), json);
+        JsonHelper.saveJson(new File(this.cacheRoot, INDEX_FILE), json);
+    }
+
+    private void ensureIndexLoaded() {
+        if (this.environment == null) {
+            readIndex();
+        }
     }
 
     public void checkSyntax() {
+        ensureIndexLoaded();
         GroovyScriptEngine engine = createScriptEngine();
         Binding binding = createBindings();
         Set<File> executedClasses = new ObjectOpenHashSet<>();
@@ -158,6 +252,7 @@ public class GroovyScriptSandbox extends GroovySandbox {
 
     public void run(LoadStage currentLoadStage) {
         this.currentLoadStage = Objects.requireNonNull(currentLoadStage);
+        ensureIndexLoaded();
         try {
             super.load();
         } catch (IOException | ScriptException | ResourceException e) {
@@ -170,12 +265,32 @@ public class GroovyScriptSandbox extends GroovySandbox {
                 writeIndex();
             }
         }
+        if (this.reloadTracker.isInvalidated()) {
+            GroovyLog.get().infoMC("Scripts touched registries which were not reloaded. Running a full reload.");
+            this.reloadTracker.forceFullReload();
+            run(currentLoadStage);
+        }
+    }
+
+    @Override
+    protected Binding createBindings() {
+        Binding binding = new TrackingBinding(getBindings(), this.reloadTracker);
+        postInitBindings(binding);
+        return binding;
     }
 
     @Override
     protected void runScript(Script script) {
         GroovyLog.get().info(" - running {}", script.getClass().getName());
-        super.runScript(script);
+        LoadProfiler.beginScript(script.getClass().getName());
+        try {
+            super.runScript(script);
+        } finally {
+            // removals queued by this script must not see changes of the next scripts
+            VanillaModule.crafting.flushPendingRemovals();
+            LoadProfiler.endScript();
+            this.reloadTracker.onScriptFinished();
+        }
     }
 
     @ApiStatus.Internal
@@ -193,15 +308,10 @@ public class GroovyScriptSandbox extends GroovySandbox {
         try {
             result = runClosureInternal(closure, args);
         } catch (Throwable t) {
-            List<StackTraceElement> stackTrace = Arrays.asList(t.getStackTrace());
-            AtomicInteger counter = this.storedExceptions.get(stackTrace);
-            if (counter == null) {
+            if (this.closureExceptions.record(closure, t)) {
                 GroovyLog.get().exception("An exception occurred while running a closure at least once!", t);
-                this.storedExceptions.put(stackTrace, new AtomicInteger(1));
                 UncheckedThrow.rethrow(t);
                 return null; // unreachable statement
-            } else {
-                counter.getAndIncrement();
             }
         } finally {
             if (!wasRunning) stopRunning();
@@ -211,10 +321,10 @@ public class GroovyScriptSandbox extends GroovySandbox {
 
     @GroovyBlacklist
     private static <T> T runClosureInternal(Closure<T> closure, Object[] args) throws Throwable {
-        // original Closure.call(Object... arguments) code
+        // original Closure.call(Object... arguments) code, but calls doCall directly if possible
         try {
             //noinspection unchecked
-            return (T) closure.getMetaClass().invokeMethod(closure, "doCall", args);
+            return (T) ClosureInvoker.invoke(closure, args);
         } catch (InvokerInvocationException e) {
             throw e.getCause();
         } catch (Exception e) {
@@ -235,6 +345,7 @@ public class GroovyScriptSandbox extends GroovySandbox {
      */
     @ApiStatus.Internal
     public void onCompileClass(SourceUnit su, String path, Class<?> clazz, byte[] code, boolean inner) {
+        LoadProfiler.onCompileClass();
         String shortPath = FileUtil.relativize(this.scriptRoot.getPath(), path);
         // if the script was compiled because another script depends on it, the source unit is wrong
         // we need to find the source unit of the compiled class
@@ -270,30 +381,152 @@ public class GroovyScriptSandbox extends GroovySandbox {
         return c;
     }
 
+    /**
+     * Compiles all scripts of the current load stage, which don't have a valid cache yet, in parallel. Only the class bytes are created and
+     * written to the cache. The classes are defined later when the scripts are loaded in their configured order. Scripts which fail to
+     * compile here or which depend on a script or class file which isn't loaded yet are compiled as usual when they are loaded.
+     */
+    @Override
+    protected void precompileScripts(GroovyScriptEngine engine, Set<File> executedClasses) {
+        if (!ENABLE_CACHE || COMPILE_THREADS < 2) return;
+        List<File> files = new ArrayList<>();
+        List<CompiledScript> scripts = new ArrayList<>();
+        List<URLConnection> sources = new ArrayList<>();
+        for (File file : getScriptFiles()) {
+            if (executedClasses.contains(file)) continue;
+            String relativeFileName = FileUtil.relativize(this.scriptRoot.getPath(), file.getPath());
+            CompiledScript comp = this.index.get(relativeFileName);
+            // the class is already loaded or the cache is still valid
+            if (comp != null && (comp.clazz != null || comp.isUpToDate(file, file.lastModified()))) continue;
+            List<String> preprocessors = Preprocessor.parsePreprocessors(file);
+            if (!preprocessors.isEmpty() && !Preprocessor.validatePreprocessor(file, preprocessors)) continue;
+            try {
+                sources.add(engine.getResourceConnection(relativeFileName));
+            } catch (ResourceException e) {
+                continue;
+            }
+            if (comp == null) comp = new CompiledScript(relativeFileName, 0);
+            comp.preprocessors = preprocessors;
+            files.add(file);
+            scripts.add(comp);
+        }
+        if (files.size() < 2) return;
+
+        long time = System.currentTimeMillis();
+        CompilerConfiguration config = engine.getConfig();
+        GroovyClassLoader loader = new PrecompileClassLoader(getClassLoader(), config, getLoadedClasses(), this.scriptRoot);
+        ForkJoinPool pool = new ForkJoinPool(Math.min(COMPILE_THREADS, files.size()), p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("GroovyScript Compiler " + thread.getPoolIndex());
+            thread.setContextClassLoader(getClassLoader());
+            return thread;
+        }, null, false);
+        List<ForkJoinTask<CompilationUnit>> tasks = new ArrayList<>();
+        for (URLConnection source : sources) {
+            tasks.add(pool.submit(() -> compileIsolated(source, config, loader)));
+        }
+        int compiled = 0;
+        try {
+            for (int i = 0; i < tasks.size(); i++) {
+                CompilationUnit unit;
+                try {
+                    unit = tasks.get(i).get();
+                } catch (ExecutionException e) {
+                    // compile errors are reported and scripts with dependencies are compiled when the script is loaded
+                    continue;
+                }
+                if (storeCompiledScript(scripts.get(i), files.get(i), unit)) {
+                    compiled++;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        time = System.currentTimeMillis() - time;
+        LoadProfiler.onPrecompile(compiled, time * 1_000_000);
+        GroovyLog.get().info("Compiled {}/{} scripts on {} threads in {}ms", compiled, files.size(), pool.getParallelism(), time);
+    }
+
+    /**
+     * @return all classes of class files and scripts which were loaded in this run
+     */
+    private List<Class<?>> getLoadedClasses() {
+        List<Class<?>> classes = new ArrayList<>();
+        for (CompiledScript comp : this.index.values()) {
+            if (comp.clazz != null) classes.add(comp.clazz);
+            for (CompiledClass inner : comp.innerClasses) {
+                if (inner.clazz != null) classes.add(inner.clazz);
+            }
+        }
+        return classes;
+    }
+
+    private static CompilationUnit compileIsolated(URLConnection source, CompilerConfiguration config, GroovyClassLoader loader) throws IOException {
+        String text;
+        try (InputStream stream = source.getInputStream()) {
+            text = IOGroovyMethods.getText(new BufferedReader(new InputStreamReader(stream, config.getSourceEncoding())));
+        }
+        CompilationUnit unit = new CompilationUnit(config, null, loader);
+        // use the same source name as the script engine, so that the class names are the same
+        unit.addSource(source.getURL().toExternalForm(), text);
+        unit.compile(Phases.CLASS_GENERATION);
+        return unit;
+    }
+
+    private boolean storeCompiledScript(CompiledScript comp, File file, CompilationUnit unit) {
+        Iterator<SourceUnit> sources = unit.iterator();
+        String mainClassName = sources.hasNext() ? sources.next().getAST().getMainClassName() : null;
+        if (mainClassName == null) return false;
+        comp.deleteCache(this.cacheRoot.getPath());
+        comp.innerClasses.clear();
+        comp.lastEdited = file.lastModified();
+        comp.contentHash = CompiledScript.hashFile(file);
+        for (GroovyClass groovyClass : unit.getClasses()) {
+            CompiledClass compiledClass = groovyClass.getName().equals(mainClassName) ? comp : comp.findInnerClass(groovyClass.getName());
+            compiledClass.onCompile(groovyClass.getBytes(), groovyClass.getName(), this.cacheRoot.getPath());
+        }
+        this.index.put(comp.path, comp);
+        return true;
+    }
+
     @Override
     protected Class<?> loadScriptClass(GroovyScriptEngine engine, File file) {
+        if (!LoadProfiler.beginLoadClass()) return loadCachedScriptClass(engine, file);
+        long time = System.nanoTime();
+        Class<?> clazz = loadCachedScriptClass(engine, file);
+        LoadProfiler.endLoadClass(clazz, System.nanoTime() - time);
+        return clazz;
+    }
+
+    private Class<?> loadCachedScriptClass(GroovyScriptEngine engine, File file) {
         String relativeFileName = FileUtil.relativize(this.scriptRoot.getPath(), file.getPath());
         File relativeFile = new File(relativeFileName);
         long lastModified = file.lastModified();
         CompiledScript comp = this.index.get(relativeFileName);
+        boolean upToDate = comp != null && comp.isUpToDate(file, lastModified);
 
-        if (ENABLE_CACHE && comp != null && lastModified <= comp.lastEdited && comp.clazz == null && comp.readData(this.cacheRoot.getPath())) {
+        if (ENABLE_CACHE && upToDate && comp.clazz == null && comp.readData(this.cacheRoot.getPath())) {
             // class is not loaded, but the cached class bytes are still valid
             if (!comp.checkPreprocessors(this.scriptRoot)) {
                 return GroovyLog.class; // failed preprocessor check
             }
             comp.ensureLoaded(getClassLoader(), this.cacheRoot.getPath());
 
-        } else if (!ENABLE_CACHE || (comp == null || comp.clazz == null || lastModified > comp.lastEdited)) {
+        } else if (!ENABLE_CACHE || !upToDate || comp.clazz == null) {
             // class is not loaded and class bytes don't exist yet or script has been edited
             if (comp == null) {
                 comp = new CompiledScript(relativeFileName, 0);
                 this.index.put(relativeFileName, comp);
             }
-            if (lastModified > comp.lastEdited || comp.preprocessors == null) {
+            if (!upToDate || comp.preprocessors == null) {
                 // recompile preprocessors if there is no data or script was edited
                 comp.preprocessors = Preprocessor.parsePreprocessors(file);
             }
+            if (!upToDate || comp.contentHash == null) {
+                comp.contentHash = CompiledScript.hashFile(file);
+            }
             comp.lastEdited = lastModified;
             if (!comp.checkPreprocessors(this.scriptRoot)) {
                 // delete class bytes to make sure it's recompiled once the preprocessors returns true
@@ -326,20 +559,35 @@ public class GroovyScriptSandbox extends GroovySandbox {
 
     @Override
     protected void initEngine(GroovyScriptEngine engine, CompilerConfiguration config) {
-        config.addCompilationCustomizers(new GroovyScriptCompiler());
+        config.addCompilationCustomizers(new GroovyScriptCompiler(true));
         config.addCompilationCustomizers(new GroovyScriptEarlyCompiler());
     }
 
     @Override
     protected void preRun() {
+        LoadProfiler.beginStage(this.currentLoadStage.getName());
         if (DELETE_CACHE_ON_RUN) deleteScriptCache();
         // first clear all added events
         GroovyEventManager.INSTANCE.reset();
-        if (this.currentLoadStage.isReloadable() && !ReloadableRegistryManager.isFirstLoad()) {
-            // if this is not the first time this load stage is executed, reload all virtual registries
-            ReloadableRegistryManager.onReload();
-            // invoke reload event
-            MinecraftForge.EVENT_BUS.post(new GroovyReloadEvent());
+        ObjectMapperManager.clearCaches();
+        if (this.currentLoadStage.isReloadable()) {
+            Set<IScriptReloadable> registries = null;
+            if (!ReloadableRegistryManager.isFirstLoad()) {
+                // if this is not the first time this load stage is executed, reload the virtual registries
+                // with incremental reload only the registries touched by changed scripts are reloaded
+                GroovyScript.reloadRunConfig(false);
+                if (GroovyScriptConfig.incrementalReload) {
+                    registries = this.reloadTracker.planReload(getScriptFiles(), getClassFiles());
+                }
+                ReloadableRegistryManager.reloadRegistries(registries);
+                // invoke reload event
+                MinecraftForge.EVENT_BUS.post(new GroovyReloadEvent());
+            }
+            if (GroovyScriptConfig.incrementalReload) {
+                this.reloadTracker.beginRun(registries != null);
+            } else {
+                this.reloadTracker.clear();
+            }
         }
         GroovyLog.get().infoMC("Running scripts in loader '{}'", this.currentLoadStage);
         // and finally invoke pre script run event
@@ -349,11 +597,18 @@ public class GroovyScriptSandbox extends GroovySandbox {
     @Override
     protected boolean shouldRunFile(File file) {
         //GroovyLog.get().info(" - executing {}", file.toString());
+        if (!this.reloadTracker.shouldRun(file)) return false;
+        this.reloadTracker.onRunScript(file);
         return true;
     }
 
     @Override
     protected void postRun() {
+        // execute crafting removals which were deferred while scripts were running
+        VanillaModule.crafting.finishPendingRemovals();
+        // scripts may have changed ore dicts used by indexed crafting recipes
+        CraftingRecipeIndex.invalidate();
+        this.reloadTracker.finishRun();
         if (this.currentLoadStage == LoadStage.POST_INIT) {
             ReloadableRegistryManager.afterScriptRun();
         }
@@ -361,6 +616,7 @@ public class GroovyScriptSandbox extends GroovySandbox {
         if (this.currentLoadStage == LoadStage.POST_INIT && ReloadableRegistryManager.isFirstLoad()) {
             ReloadableRegistryManager.setLoaded();
         }
+        LoadProfiler.endStage();
     }
 
     @Override
@@ -381,16 +637,121 @@ public class GroovyScriptSandbox extends GroovySandbox {
         return scriptRoot;
     }
 
+    @ApiStatus.Internal
+    public ClosureExceptionTable getClosureExceptions() {
+        return closureExceptions;
+    }
+
+    @ApiStatus.Internal
+    public ScriptReloadTracker getReloadTracker() {
+        return reloadTracker;
+    }
+
     @ApiStatus.Internal
     public boolean deleteScriptCache() {
         this.index.clear();
         getClassLoader().clearCache();
         try {
-            FileUtils.cleanDirectory(this.cacheRoot);
+            if (PACK_CACHE) {
+                // the pack might still be mapped and can't be deleted
+                this.pack.clear();
+            }
+            // the cache directory also holds the caches of the language server and the reflection cache, only compiled scripts are deleted
+            deleteCompiledScripts(this.cacheRoot);
             return true;
         } catch (IOException e) {
             GroovyScript.LOGGER.throwing(e);
             return false;
         }
     }
+
+    /**
+     * Deletes the script index and all class files in a directory and its sub directories. Directories which only contained class files
+     * are deleted as well.
+     *
+     * @return true if any file was deleted
+     */
+    private static boolean deleteCompiledScripts(File dir) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) return false;
+        boolean deleted = false;
+        for (File file : files) {
+            if (file.isDirectory()) {
+                if (deleteCompiledScripts(file)) {
+                    deleted = true;
+                    String[] remaining = file.list();
+                    if (remaining != null && remaining.length == 0) Files.delete(file.toPath());
+                }
+            } else if (file.getName().endsWith(CompiledClass.CLASS_SUFFIX) || file.getName().equals(INDEX_FILE)) {
+                Files.delete(file.toPath());
+                deleted = true;
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * The class loader of scripts which are compiled ahead of time. Classes of class files and scripts which were compiled in this run are
+     * only known to the class loader of the engine, so they are added to the cache of this loader. Other scripts are never compiled here.
+     * <p>
+     * Groovy compiles an unknown name like {@code Helper.foo()} as a dynamic property access instead of failing. So if a script tries to
+     * resolve a name which is a source file in the script root, its compilation is aborted and the script is compiled by the engine when
+     * it's loaded.
+     */
+    private static class PrecompileClassLoader extends GroovyClassLoader {
+
+        private PrecompileClassLoader(ClassLoader parent, CompilerConfiguration config, List<Class<?>> loadedClasses, File scriptRoot) {
+            super(parent, config);
+            Set<String> extensions = config.getScriptExtensions();
+            setResourceLoader(filename -> {
+                String path = filename.replace('.', File.separatorChar);
+                for (String extension : extensions) {
+                    if (new File(scriptRoot, path + '.' + extension).isFile()) {
+                        throw new ScriptDependencyException(filename);
+                    }
+                }
+                return null;
+            });
+            for (Class<?> clazz : loadedClasses) {
+                setClassCacheEntry(clazz);
+            }
+        }
+    }
+
+    /**
+     * Thrown when a script which is compiled ahead of time depends on a script or class file which isn't loaded yet.
+     */
+    private static class ScriptDependencyException extends RuntimeException {
+
+        private ScriptDependencyException(String name) {
+            super(name, null, false, false);
+        }
+    }
+
+    /**
+     * Reports accessed bindings to the reload tracker. Assigning a binding variable shares state between scripts.
+     */
+    private static class TrackingBinding extends Binding {
+
+        private final ScriptReloadTracker reloadTracker;
+
+        private TrackingBinding(Map<String, Object> variables, ScriptReloadTracker reloadTracker) {
+            super(variables);
+            this.reloadTracker = reloadTracker;
+        }
+
+        @Override
+        public Object getVariable(String name) {
+            Object value = super.getVariable(name);
+            this.reloadTracker.onBindingAccess(name, value);
+            if (value instanceof IScriptReloadable) LoadProfiler.onRegistryAccess(value);
+            return value;
+        }
+
+        @Override
+        public void setVariable(String name, Object value) {
+            this.reloadTracker.onBindingWrite();
+            super.setVariable(name, value);
+        }
+    }
 }
@@ -0,0 +1,341 @@
+package com.cleanroommc.groovyscript.sandbox;
+
+import com.cleanroommc.groovyscript.GroovyScriptConfig;
+import com.cleanroommc.groovyscript.api.GroovyLog;
+import com.cleanroommc.groovyscript.api.INamed;
+import com.cleanroommc.groovyscript.helper.JsonHelper;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import it.unimi.dsi.fastutil.objects.Object2ObjectLinkedOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2ObjectLinkedOpenHashMap;
+import net.minecraftforge.registries.IForgeRegistry;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+
+/**
+ * Records where time is spent while scripts are loaded. Enabled with {@link GroovyScriptConfig#profileLoading}.
+ * <p>
+ * For every script the time to load (and compile) its class and the time to run it is recorded. Time spent inside a script is attributed
+ * to the registry which was accessed last, starting when a script accesses a registry and ending when it accesses the next registry or
+ * finishes. Reloading registries and {@code afterScriptLoad} are measured per registry.
+ * <p>
+ * After each load stage a report is written next to the groovy log as json and in the collapsed stack format used by flame graph tools.
+ */
+@ApiStatus.Internal
+public final class LoadProfiler {
+
+    public static final String REPORT_NAME = "groovy_profile";
+
+    // keeps the last run of each load stage
+    private static final Map<String, StageProfile> stages = new Object2ObjectLinkedOpenHashMap<>();
+    private static StageProfile current;
+
+    private LoadProfiler() {}
+
+    public static boolean isEnabled() {
+        return GroovyScriptConfig.profileLoading;
+    }
+
+    static void beginStage(String stage) {
+        current = isEnabled() ? new StageProfile(stage) : null;
+    }
+
+    static void endStage() {
+        if (current == null) return;
+        current.totalNanos = System.nanoTime() - current.start;
+        stages.put(current.name, current);
+        current = null;
+        writeReport();
+    }
+
+    static void onPrecompile(int count, long nanos) {
+        if (current != null) {
+            current.precompiled += count;
+            current.precompileNanos += nanos;
+        }
+    }
+
+    static void onCompileClass() {
+        if (current != null) current.compiling = true;
+    }
+
+    static boolean beginLoadClass() {
+        if (current == null) return false;
+        current.compiling = false;
+        return true;
+    }
+
+    static void endLoadClass(Class<?> clazz, long nanos) {
+        if (current == null || clazz == GroovyLog.class) return;
+        ScriptProfile script = current.getScript(clazz.getName());
+        script.loadNanos += nanos;
+        script.compiled |= current.compiling;
+    }
+
+    static void beginScript(String name) {
+        if (current == null) return;
+        current.script = current.getScript(name);
+        current.script.start = System.nanoTime();
+    }
+
+    static void endScript() {
+        if (current == null || current.script == null) return;
+        long time = System.nanoTime();
+        current.closeRegistry(time);
+        current.script.runNanos += time - current.script.start;
+        current.script = null;
+    }
+
+    /**
+     * Called when a script accesses a registry.
+     */
+    public static void onRegistryAccess(Object registry) {
+        if (current == null || current.script == null) return;
+        long time = System.nanoTime();
+        current.closeRegistry(time);
+        current.registry = current.getRegistry(registry);
+        current.registry.accesses++;
+        current.registrySince = time;
+    }
+
+    /**
+     * Called when a registry adds a scripted entry or a backup of a removed entry.
+     */
+    public static void onRegistryWrite(Object registry, boolean removal) {
+        if (current == null) return;
+        RegistryProfile profile = current.getRegistry(registry);
+        if (removal) {
+            profile.removals++;
+        } else {
+            profile.additions++;
+        }
+    }
+
+    /**
+     * Runs the action and adds its time to the registry.
+     *
+     * @param registry registry
+     * @param reload   true if the registry is reloaded or false if {@code afterScriptLoad} is called
+     * @param action   the action to measure
+     */
+    public static void measure(Object registry, boolean reload, Runnable action) {
+        if (current == null) {
+            action.run();
+            return;
+        }
+        long time = System.nanoTime();
+        action.run();
+        time = System.nanoTime() - time;
+        RegistryProfile profile = current.getRegistry(registry);
+        if (reload) {
+            profile.reloadNanos += time;
+        } else {
+            profile.afterScriptLoadNanos += time;
+        }
+    }
+
+    /**
+     * @return a short summary of the recorded load stages for chat
+     */
+    public static List<String> summarize(int limit) {
+        List<String> lines = new ArrayList<>();
+        for (StageProfile stage : stages.values()) {
+            lines.add(String.format("%s: %.1fms total, %d scripts, %d compiled", stage.name, ms(stage.totalNanos), stage.scripts.size(), stage.countCompiled()));
+            stage.sortedScripts().stream().limit(limit).forEach(script -> lines.add(String.format("  %s: %.1fms load, %.1fms run", script.name, ms(script.loadNanos), ms(script.runNanos))));
+            stage.sortedRegistries().stream().limit(limit).forEach(registry -> lines.add(String.format("  [%s] %.1fms, %d calls", registry.name, ms(registry.getTotalNanos()), registry.accesses)));
+        }
+        return lines;
+    }
+
+    public static File getReportFile(String extension) {
+        return GroovyLog.get().getLogFilePath().getParent().resolve(REPORT_NAME + extension).toFile();
+    }
+
+    private static void writeReport() {
+        JsonArray json = new JsonArray();
+        for (StageProfile stage : stages.values()) {
+            json.add(stage.toJson());
+        }
+        JsonHelper.saveJson(getReportFile(".json"), json);
+        try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(getReportFile(".collapsed").toPath(), StandardCharsets.UTF_8))) {
+            for (StageProfile stage : stages.values()) {
+                stage.writeCollapsed(writer);
+            }
+        } catch (IOException e) {
+            GroovyLog.get().exception("Failed to write load profile", e);
+        }
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static long us(long nanos) {
+        return nanos / 1_000;
+    }
+
+    private static String nameOf(Object registry) {
+        if (registry instanceof IForgeRegistry<?>forgeRegistry) {
+            return "forge:" + forgeRegistry.getRegistrySuperType().getSimpleName();
+        }
+        // the mod package makes registries with the same name distinguishable
+        String pkg = registry.getClass().getPackage() == null ? "" : registry.getClass().getPackage().getName();
+        String name = registry instanceof INamed named ? named.getName() : registry.getClass().getSimpleName();
+        return pkg.substring(pkg.lastIndexOf('.') + 1) + "." + name;
+    }
+
+    private static class StageProfile {
+
+        private final String name;
+        private final long start = System.nanoTime();
+        private final Map<String, ScriptProfile> scripts = new Object2ObjectLinkedOpenHashMap<>();
+        private final Map<Object, RegistryProfile> registries = new Reference2ObjectLinkedOpenHashMap<>();
+        private long totalNanos;
+        private int precompiled;
+        private long precompileNanos;
+        private boolean compiling;
+        private @Nullable ScriptProfile script;
+        private @Nullable RegistryProfile registry;
+        private long registrySince;
+
+        private StageProfile(String name) {
+            this.name = name;
+        }
+
+        private ScriptProfile getScript(String name) {
+            return this.scripts.computeIfAbsent(name, ScriptProfile::new);
+        }
+
+        private RegistryProfile getRegistry(Object registry) {
+            return this.registries.computeIfAbsent(registry, r -> new RegistryProfile(nameOf(r)));
+        }
+
+        private void closeRegistry(long time) {
+            if (this.registry != null && this.script != null) {
+                long elapsed = time - this.registrySince;
+                this.registry.scriptNanos += elapsed;
+                this.script.registryNanos.merge(this.registry.name, elapsed, Long::sum);
+            }
+            this.registry = null;
+        }
+
+        private int countCompiled() {
+            int count = 0;
+            for (ScriptProfile script : this.scripts.values()) {
+                if (script.compiled) count++;
+            }
+            return count;
+        }
+
+        private List<ScriptProfile> sortedScripts() {
+            List<ScriptProfile> list = new ArrayList<>(this.scripts.values());
+            list.sort(Comparator.comparingLong(ScriptProfile::getTotalNanos).reversed());
+            return list;
+        }
+
+        private List<RegistryProfile> sortedRegistries() {
+            List<RegistryProfile> list = new ArrayList<>(this.registries.values());
+            list.sort(Comparator.comparingLong(RegistryProfile::getTotalNanos).reversed());
+            return list;
+        }
+
+        private JsonObject toJson() {
+            JsonObject json = new JsonObject();
+            json.addProperty("stage", this.name);
+            json.addProperty("totalNanos", this.totalNanos);
+            json.addProperty("precompiledScripts", this.precompiled);
+            json.addProperty("precompileNanos", this.precompileNanos);
+            JsonArray scripts = new JsonArray();
+            for (ScriptProfile script : sortedScripts()) {
+                JsonObject scriptJson = new JsonObject();
+                scriptJson.addProperty("name", script.name);
+                scriptJson.addProperty("cacheHit", !script.compiled);
+                scriptJson.addProperty("loadNanos", script.loadNanos);
+                scriptJson.addProperty("runNanos", script.runNanos);
+                JsonObject registryJson = new JsonObject();
+                script.registryNanos.forEach(registryJson::addProperty);
+                scriptJson.add("registryNanos", registryJson);
+                scripts.add(scriptJson);
+            }
+            json.add("scripts", scripts);
+            JsonArray registries = new JsonArray();
+            for (RegistryProfile registry : sortedRegistries()) {
+                JsonObject registryJson = new JsonObject();
+                registryJson.addProperty("name", registry.name);
+                registryJson.addProperty("calls", registry.accesses);
+                registryJson.addProperty("additions", registry.additions);
+                registryJson.addProperty("removals", registry.removals);
+                registryJson.addProperty("scriptNanos", registry.scriptNanos);
+                registryJson.addProperty("reloadNanos", registry.reloadNanos);
+                registryJson.addProperty("afterScriptLoadNanos", registry.afterScriptLoadNanos);
+                registries.add(registryJson);
+            }
+            json.add("registries", registries);
+            return json;
+        }
+
+        private void writeCollapsed(PrintWriter writer) {
+            String stage = this.name.replace(';', '_');
+            if (this.precompileNanos > 0) writer.println(stage + ";precompile " + us(this.precompileNanos));
+            for (ScriptProfile script : this.scripts.values()) {
+                String prefix = stage + ";" + script.name.replace(';', '_');
+                writer.println(prefix + ";" + (script.compiled ? "compile " : "load ") + us(script.loadNanos));
+                long other = script.runNanos;
+                for (Map.Entry<String, Long> entry : script.registryNanos.entrySet()) {
+                    writer.println(prefix + ";run;" + entry.getKey() + " " + us(entry.getValue()));
+                    other -= entry.getValue();
+                }
+                if (other > 0) writer.println(prefix + ";run " + us(other));
+            }
+            for (RegistryProfile registry : this.registries.values()) {
+                if (registry.reloadNanos > 0) writer.println(stage + ";reload;" + registry.name + " " + us(registry.reloadNanos));
+                if (registry.afterScriptLoadNanos > 0) writer.println(stage + ";afterScriptLoad;" + registry.name + " " + us(registry.afterScriptLoadNanos));
+            }
+        }
+    }
+
+    private static class ScriptProfile {
+
+        private final String name;
+        private final Map<String, Long> registryNanos = new Object2ObjectOpenHashMap<>();
+        private long loadNanos;
+        private long runNanos;
+        private long start;
+        private boolean compiled;
+
+        private ScriptProfile(String name) {
+            this.name = name;
+        }
+
+        private long getTotalNanos() {
+            return loadNanos + runNanos;
+        }
+    }
+
+    private static class RegistryProfile {
+
+        private final String name;
+        private int accesses;
+        private int additions;
+        private int removals;
+        private long scriptNanos;
+        private long reloadNanos;
+        private long afterScriptLoadNanos;
+
+        private RegistryProfile(String name) {
+            this.name = name;
+        }
+
+        private long getTotalNanos() {
+            return scriptNanos + reloadNanos + afterScriptLoadNanos;
+        }
+    }
+}
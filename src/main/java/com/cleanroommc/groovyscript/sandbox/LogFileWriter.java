@@ -0,0 +1,183 @@
+package com.cleanroommc.groovyscript.sandbox;
+
+import com.cleanroommc.groovyscript.GroovyScript;
+import com.cleanroommc.groovyscript.GroovyScriptConfig;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The writer of the groovy log file. Normally every line is written and flushed to disk immediately. If
+ * {@link GroovyScriptConfig#asyncLog} is enabled, completed lines are put into a bounded queue instead and written in batches by a
+ * background thread. If the queue is full, the logging thread waits and the wait is counted.
+ */
+class LogFileWriter extends Writer {
+
+    private static final int QUEUE_SIZE = 8192;
+    private static final long FLUSH_TIMEOUT_MS = 5000;
+
+    private final Writer out;
+    private final StringBuilder pending = new StringBuilder();
+    private final AtomicLong backpressure = new AtomicLong();
+    private BlockingQueue<Object> queue;
+    private Thread thread;
+    private volatile boolean closed;
+
+    LogFileWriter(Writer out) {
+        this.out = out;
+    }
+
+    @Override
+    public synchronized void write(char[] cbuf, int off, int len) throws IOException {
+        if (this.closed) return;
+        if (isAsync()) {
+            this.pending.append(cbuf, off, len);
+        } else {
+            // async logging might have been disabled while lines are still queued
+            enqueuePending();
+            if (this.queue != null && !this.queue.isEmpty()) awaitWritten();
+            synchronized (this.out) {
+                this.out.write(cbuf, off, len);
+            }
+        }
+    }
+
+    /**
+     * Called by the print writer after each line. In async mode the line is handed to the writer thread, otherwise it's flushed to disk.
+     */
+    @Override
+    public void flush() throws IOException {
+        synchronized (this) {
+            if (this.closed) return;
+            if (isAsync()) {
+                enqueuePending();
+                return;
+            }
+        }
+        awaitWritten();
+        synchronized (this.out) {
+            this.out.flush();
+        }
+    }
+
+    /**
+     * Writes everything logged so far to disk and waits until it's done.
+     */
+    public void flushToDisk() {
+        synchronized (this) {
+            if (this.closed) return;
+            enqueuePending();
+        }
+        awaitWritten();
+        synchronized (this.out) {
+            try {
+                this.out.flush();
+            } catch (IOException e) {
+                GroovyScript.LOGGER.throwing(e);
+            }
+        }
+    }
+
+    /**
+     * @return how often a thread had to wait, because the writer thread couldn't keep up
+     */
+    public long getBackpressureCount() {
+        return this.backpressure.get();
+    }
+
+    @Override
+    public void close() throws IOException {
+        flushToDisk();
+        synchronized (this) {
+            this.closed = true;
+            if (this.thread != null) this.thread.interrupt();
+            synchronized (this.out) {
+                this.out.close();
+            }
+        }
+    }
+
+    private static boolean isAsync() {
+        return GroovyScriptConfig.asyncLog;
+    }
+
+    private void enqueuePending() {
+        if (this.pending.length() == 0) return;
+        String text = this.pending.toString();
+        this.pending.setLength(0);
+        enqueue(text);
+    }
+
+    private void enqueue(Object element) {
+        if (this.queue == null) startThread();
+        if (this.queue.offer(element)) return;
+        this.backpressure.incrementAndGet();
+        try {
+            this.queue.put(element);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitWritten() {
+        CountDownLatch latch;
+        synchronized (this) {
+            if (this.queue == null || this.thread == null || !this.thread.isAlive()) return;
+            latch = new CountDownLatch(1);
+            enqueue(latch);
+        }
+        try {
+            latch.await(FLUSH_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void startThread() {
+        this.queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+        this.thread = new Thread(this::run, "GroovyScript Log Writer");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private void run() {
+        List<Object> batch = new ArrayList<>();
+        while (!this.closed) {
+            try {
+                batch.add(this.queue.take());
+            } catch (InterruptedException e) {
+                break;
+            }
+            this.queue.drainTo(batch);
+            try {
+                synchronized (this.out) {
+                    for (Object element : batch) {
+                        if (element instanceof String text) {
+                            this.out.write(text);
+                        } else {
+                            // a flush request
+                            this.out.flush();
+                            ((CountDownLatch) element).countDown();
+                        }
+                    }
+                    if (this.queue.isEmpty()) this.out.flush();
+                }
+            } catch (IOException e) {
+                GroovyScript.LOGGER.throwing(e);
+            } finally {
+                // threads waiting for a flush must not wait for the timeout if writing failed
+                for (Object element : batch) {
+                    if (element instanceof CountDownLatch latch) latch.countDown();
+                }
+            }
+            batch.clear();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+package com.cleanroommc.groovyscript.sandbox;
+
+import org.codehaus.groovy.vmplugin.VMPlugin;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A single file cache for compiled script classes. This replaces the {@code _index.json} and the {@code .clz} file per class.
+ * <p>
+ * The file starts with a header, followed by the raw class bytes. New class bytes are always appended, followed by a new offset table
+ * and a footer which points to the table. Only the last table is valid. Class bytes which are no longer referenced by the last table
+ * are removed when the file is compacted on the next start.
+ * <p>
+ * The file is memory mapped and classes are defined directly from slices of the mapped buffer.
+ */
+class ScriptCachePack {
+
+    public static final String FILE_NAME = "_cache.pack";
+
+    private static final int MAGIC = 0x47534350; // GSCP
+    private static final int FORMAT_VERSION = 1;
+    private static final int FOOTER_SIZE = 16;
+    private static final long MIN_COMPACT_SIZE = 1 << 16;
+
+    private final File file;
+
+    ScriptCachePack(File cacheRoot) {
+        this.file = new File(cacheRoot, FILE_NAME);
+    }
+
+    public File getFile() {
+        return file;
+    }
+
+    /**
+     * Reads all entries of the pack. Entries of scripts which no longer exist are skipped. The pack is compacted if too much of the file
+     * is no longer referenced.
+     *
+     * @param scriptRoot  the script root path
+     * @param environment the environment hash of the sandbox
+     * @return all valid entries or null if the pack is invalid or from a different cache version
+     * @throws IOException if the file can't be read
+     */
+    public @Nullable List<CompiledScript> read(String scriptRoot, String environment) throws IOException {
+        if (!this.file.exists()) return Collections.emptyList();
+        List<CompiledScript> scripts = new ArrayList<>();
+        long liveBytes;
+        long size;
+        try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+            size = channel.size();
+            if (size < FOOTER_SIZE || !readHeader(channel, environment)) return null;
+            ByteBuffer footer = readFully(channel, size - FOOTER_SIZE, FOOTER_SIZE);
+            long tableOffset = footer.getLong();
+            int tableLength = footer.getInt();
+            if (footer.getInt() != MAGIC || tableOffset < 0 || tableOffset + tableLength > size - FOOTER_SIZE) return null;
+            liveBytes = readTable(asStream(readFully(channel, tableOffset, tableLength)), scriptRoot, scripts);
+        } catch (EOFException e) {
+            return null;
+        }
+        if (size > MIN_COMPACT_SIZE && liveBytes * 2 < size) {
+            compact(scripts, environment);
+        }
+        if (!scripts.isEmpty()) {
+            try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                for (CompiledScript script : scripts) {
+                    slice(buffer, script);
+                    for (CompiledClass comp : script.innerClasses) {
+                        slice(buffer, comp);
+                    }
+                }
+            }
+        }
+        return scripts;
+    }
+
+    /**
+     * Appends the class bytes of all classes which are not yet in the pack, followed by a new table containing all given scripts.
+     *
+     * @param scripts     all scripts which should be in the pack
+     * @param environment the environment hash of the sandbox
+     * @throws IOException if the file can't be written
+     */
+    public void write(Collection<CompiledScript> scripts, String environment) throws IOException {
+        this.file.getParentFile().mkdirs();
+        try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long pos = channel.size();
+            if (pos == 0) {
+                pos = writeFully(channel, pos, writeHeader(environment));
+            }
+            for (CompiledScript script : scripts) {
+                pos = append(channel, pos, script);
+                for (CompiledClass comp : script.innerClasses) {
+                    pos = append(channel, pos, comp);
+                }
+            }
+            writeTable(channel, pos, scripts);
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Deletes the pack. If the file can't be deleted, because it's still mapped, an empty table is appended instead.
+     */
+    public void clear() throws IOException {
+        try {
+            Files.deleteIfExists(this.file.toPath());
+        } catch (IOException e) {
+            try (FileChannel channel = FileChannel.open(this.file.toPath(), StandardOpenOption.WRITE)) {
+                writeTable(channel, channel.size(), Collections.emptyList());
+            }
+        }
+    }
+
+    private void compact(List<CompiledScript> scripts, String environment) throws IOException {
+        Path tmp = new File(this.file.getParentFile(), FILE_NAME + ".tmp").toPath();
+        try (FileChannel in = FileChannel.open(this.file.toPath(), StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            long pos = writeFully(out, 0, writeHeader(environment));
+            for (CompiledScript script : scripts) {
+                pos = transfer(in, out, pos, script);
+                for (CompiledClass comp : script.innerClasses) {
+                    pos = transfer(in, out, pos, comp);
+                }
+            }
+            writeTable(out, pos, scripts);
+        }
+        Files.move(tmp, this.file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static long transfer(FileChannel in, FileChannel out, long pos, CompiledClass comp) throws IOException {
+        if (comp.packOffset < 0) return pos;
+        long transferred = 0;
+        while (transferred < comp.packLength) {
+            transferred += in.transferTo(comp.packOffset + transferred, comp.packLength - transferred, out.position(pos + transferred));
+        }
+        comp.packOffset = pos;
+        return pos + comp.packLength;
+    }
+
+    private static long append(FileChannel channel, long pos, CompiledClass comp) throws IOException {
+        if (comp.packOffset >= 0 || comp.data == null) return pos;
+        comp.packOffset = pos;
+        comp.packLength = comp.data.length;
+        return writeFully(channel, pos, ByteBuffer.wrap(comp.data));
+    }
+
+    private static void slice(ByteBuffer buffer, CompiledClass comp) {
+        if (comp.packOffset < 0) return;
+        ByteBuffer slice = buffer.duplicate();
+        slice.position((int) comp.packOffset);
+        slice.limit((int) comp.packOffset + comp.packLength);
+        comp.packedData = slice.slice();
+    }
+
+    private static ByteBuffer writeHeader(String environment) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(GroovyScriptSandbox.CACHE_VERSION);
+        out.writeUTF(VMPlugin.getJavaVersion());
+        out.writeUTF(environment);
+        return ByteBuffer.wrap(bytes.toByteArray());
+    }
+
+    private static boolean readHeader(FileChannel channel, String environment) throws IOException {
+        DataInputStream in = asStream(readFully(channel, 0, (int) Math.min(channel.size(), 256)));
+        return in.readInt() == MAGIC &&
+               in.readInt() == FORMAT_VERSION &&
+               in.readInt() == GroovyScriptSandbox.CACHE_VERSION &&
+               in.readUTF().equals(VMPlugin.getJavaVersion()) &&
+               in.readUTF().equals(environment);
+    }
+
+    private static void writeTable(FileChannel channel, long pos, Collection<CompiledScript> scripts) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(scripts.size());
+        for (CompiledScript script : scripts) {
+            out.writeUTF(script.path);
+            out.writeLong(script.lastEdited);
+            out.writeBoolean(script.contentHash != null);
+            if (script.contentHash != null) out.writeUTF(script.contentHash);
+            writeClass(out, script);
+            if (script.preprocessors == null) {
+                out.writeInt(-1);
+            } else {
+                out.writeInt(script.preprocessors.size());
+                for (String pp : script.preprocessors) {
+                    out.writeUTF(pp);
+                }
+            }
+            out.writeInt(script.innerClasses.size());
+            for (CompiledClass comp : script.innerClasses) {
+                writeClass(out, comp);
+            }
+        }
+        long tableOffset = pos;
+        pos = writeFully(channel, pos, ByteBuffer.wrap(bytes.toByteArray()));
+        ByteBuffer footer = ByteBuffer.allocate(FOOTER_SIZE);
+        footer.putLong(tableOffset).putInt((int) (pos - tableOffset)).putInt(MAGIC).flip();
+        writeFully(channel, pos, footer);
+    }
+
+    private static long readTable(DataInputStream in, String scriptRoot, List<CompiledScript> scripts) throws IOException {
+        long liveBytes = 0;
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            String path = in.readUTF();
+            CompiledScript script = new CompiledScript(path, in.readLong());
+            if (in.readBoolean()) script.contentHash = in.readUTF();
+            readClass(in, script);
+            int ppCount = in.readInt();
+            if (ppCount >= 0) {
+                script.preprocessors = new ArrayList<>(ppCount);
+                for (int j = 0; j < ppCount; j++) {
+                    script.preprocessors.add(in.readUTF());
+                }
+            }
+            int innerCount = in.readInt();
+            for (int j = 0; j < innerCount; j++) {
+                CompiledClass comp = new CompiledClass(path, null);
+                readClass(in, comp);
+                script.innerClasses.add(comp);
+            }
+            // script file no longer exists -> don't keep its classes
+            if (new File(scriptRoot, path).exists()) {
+                scripts.add(script);
+                liveBytes += script.packLength;
+                for (CompiledClass comp : script.innerClasses) {
+                    liveBytes += comp.packLength;
+                }
+            }
+        }
+        return liveBytes;
+    }
+
+    private static void writeClass(DataOutputStream out, CompiledClass comp) throws IOException {
+        out.writeBoolean(comp.name != null);
+        if (comp.name != null) out.writeUTF(comp.name);
+        out.writeLong(comp.packOffset);
+        out.writeInt(comp.packOffset < 0 ? 0 : comp.packLength);
+    }
+
+    private static void readClass(DataInputStream in, CompiledClass comp) throws IOException {
+        if (in.readBoolean()) comp.name = in.readUTF();
+        comp.packOffset = in.readLong();
+        comp.packLength = in.readInt();
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long pos, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, pos + buffer.position()) < 0) throw new EOFException();
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static long writeFully(FileChannel channel, long pos, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            pos += channel.write(buffer, pos);
+        }
+        return pos;
+    }
+
+    private static DataInputStream asStream(ByteBuffer buffer) {
+        return new DataInputStream(new ByteArrayInputStream(buffer.array(), buffer.position(), buffer.remaining()));
+    }
+}
@@ -0,0 +1,270 @@
+package com.cleanroommc.groovyscript.sandbox;
+
+import com.cleanroommc.groovyscript.api.GroovyLog;
+import com.cleanroommc.groovyscript.api.IScriptReloadable;
+import com.cleanroommc.groovyscript.registry.ForgeRegistryWrapper;
+import com.cleanroommc.groovyscript.registry.ReloadableRegistryManager;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
+import net.minecraftforge.registries.IForgeRegistry;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.File;
+import java.util.*;
+
+/**
+ * Tracks which reloadable registries each script file of the reloadable load stage touches. This allows a reload to only undo the
+ * registries touched by changed scripts and to only re-run the scripts which touched those registries.
+ * <p>
+ * A registry counts as touched by a script if the script accessed it through a binding or a mod property or if the registry recorded a
+ * scripted or backup entry while the script was running. The ore dictionary is also touched by every script which creates an ore dict
+ * ingredient, since the items of the ingredient depend on scripts which modify the ore dictionary. Scripts which share state with other scripts (via {@code globals} or by
+ * assigning binding variables) and added or class files always cause a full reload.
+ */
+@ApiStatus.Internal
+public class ScriptReloadTracker {
+
+    private final Map<String, ScriptRecord> records = new Object2ObjectOpenHashMap<>();
+    private final String scriptRoot;
+    private boolean active;
+    private ScriptRecord current;
+    // paths of scripts which run in the current incremental reload or null if all scripts run
+    private Set<String> scriptsToRun;
+    // registries which were reloaded in the current incremental reload
+    private Set<Object> reloadedRegistries;
+    private boolean invalidated;
+    private boolean forceFullReload;
+
+    ScriptReloadTracker(File scriptRoot) {
+        this.scriptRoot = scriptRoot.getPath();
+    }
+
+    /**
+     * Determines which registries need to be reloaded and which scripts need to run again.
+     *
+     * @param scriptFiles all script files of the load stage in run order
+     * @param classFiles  all class files of the load stage
+     * @return the registries to reload or null if everything needs to be reloaded
+     */
+    @Nullable
+    Set<IScriptReloadable> planReload(Collection<File> scriptFiles, Collection<File> classFiles) {
+        this.scriptsToRun = null;
+        this.reloadedRegistries = null;
+        if (this.forceFullReload || !classFiles.isEmpty() || this.records.isEmpty()) return null;
+        Map<String, ScriptRecord> unchanged = new Object2ObjectOpenHashMap<>();
+        Set<String> toRun = new ObjectOpenHashSet<>();
+        Set<Object> registries = new ObjectOpenHashSet<>();
+        Set<String> present = new ObjectOpenHashSet<>();
+        for (File file : scriptFiles) {
+            String path = relativize(file);
+            present.add(path);
+            ScriptRecord record = this.records.get(path);
+            boolean runsNow = Preprocessor.validatePreprocessor(file, Preprocessor.parsePreprocessors(file));
+            if (record == null) {
+                if (!runsNow) continue; // never ran and doesn't run now
+                return null; // new scripts might depend on the run order of other scripts
+            }
+            if (record.crossFile) return null;
+            // records only exist for scripts which ran, so a script which no longer runs counts as changed
+            if (runsNow && record.isUnchanged(file)) {
+                if (record.listener) {
+                    // event listeners are always removed on reload
+                    toRun.add(path);
+                    registries.addAll(record.registries);
+                } else {
+                    unchanged.put(path, record);
+                }
+            } else {
+                if (runsNow) toRun.add(path);
+                registries.addAll(record.registries);
+            }
+        }
+        for (Map.Entry<String, ScriptRecord> entry : this.records.entrySet()) {
+            if (!present.contains(entry.getKey())) {
+                // removed scripts only need to be undone
+                registries.addAll(entry.getValue().registries);
+            }
+        }
+        // every script which touched a reloaded registry needs to run again, which may reload more registries
+        boolean changed = true;
+        while (changed) {
+            changed = false;
+            Iterator<Map.Entry<String, ScriptRecord>> it = unchanged.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, ScriptRecord> entry = it.next();
+                if (!Collections.disjoint(entry.getValue().registries, registries)) {
+                    toRun.add(entry.getKey());
+                    registries.addAll(entry.getValue().registries);
+                    it.remove();
+                    changed = true;
+                }
+            }
+        }
+        if (unchanged.isEmpty()) return null;
+        Set<IScriptReloadable> reloadables = expandRegistries(registries);
+        if (reloadables == null) return null;
+        this.scriptsToRun = toRun;
+        this.reloadedRegistries = registries;
+        GroovyLog.get().info("Incremental reload: running {} of {} scripts and reloading {} registries", toRun.size(), present.size(), reloadables.size());
+        return reloadables;
+    }
+
+    private static @Nullable Set<IScriptReloadable> expandRegistries(Set<Object> registries) {
+        Set<IScriptReloadable> reloadables = new ObjectOpenHashSet<>();
+        for (Object registry : registries) {
+            if (registry instanceof IScriptReloadable reloadable) {
+                reloadables.add(reloadable);
+            } else if (registry instanceof IForgeRegistry<?>forgeRegistry) {
+                boolean found = false;
+                for (IScriptReloadable reloadable : ReloadableRegistryManager.getReloadableRegistries()) {
+                    if (reloadable instanceof ForgeRegistryWrapper<?>wrapper && wrapper.getRegistry() == forgeRegistry) {
+                        reloadables.add(wrapper);
+                        found = true;
+                    }
+                }
+                // the forge registry can't be reloaded on its own
+                if (!found) return null;
+            }
+        }
+        return reloadables;
+    }
+
+    void beginRun(boolean incremental) {
+        this.active = true;
+        this.invalidated = false;
+        this.forceFullReload = false;
+        if (!incremental) {
+            this.records.clear();
+            this.scriptsToRun = null;
+            this.reloadedRegistries = null;
+        }
+    }
+
+    void clear() {
+        this.records.clear();
+        this.active = false;
+        this.current = null;
+    }
+
+    /**
+     * Called after all scripts ran. If a re-run script started touching a registry which was not reloaded, but is touched by a script which
+     * did not run again, the result depends on the order of the scripts and a full reload is necessary.
+     */
+    void finishRun() {
+        if (this.active && this.scriptsToRun != null) {
+            for (String path : this.scriptsToRun) {
+                ScriptRecord record = this.records.get(path);
+                if (record == null) continue;
+                if (record.crossFile) {
+                    this.invalidated = true;
+                    break;
+                }
+                for (Object registry : record.registries) {
+                    if (!this.reloadedRegistries.contains(registry) && isTouchedByOtherScript(registry)) {
+                        this.invalidated = true;
+                        break;
+                    }
+                }
+            }
+        }
+        this.active = false;
+        this.current = null;
+        this.scriptsToRun = null;
+        this.reloadedRegistries = null;
+    }
+
+    private boolean isTouchedByOtherScript(Object registry) {
+        for (Map.Entry<String, ScriptRecord> entry : this.records.entrySet()) {
+            if (!this.scriptsToRun.contains(entry.getKey()) && entry.getValue().registries.contains(registry)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return true if the last incremental reload turned out to be invalid and a full reload is required
+     */
+    boolean isInvalidated() {
+        return invalidated;
+    }
+
+    void forceFullReload() {
+        this.forceFullReload = true;
+    }
+
+    boolean shouldRun(File file) {
+        return !this.active || this.scriptsToRun == null || this.scriptsToRun.contains(relativize(file));
+    }
+
+    void onRunScript(File file) {
+        if (!this.active) return;
+        this.current = new ScriptRecord(file);
+        this.records.put(relativize(file), this.current);
+    }
+
+    void onScriptFinished() {
+        this.current = null;
+    }
+
+    void onBindingAccess(String name, Object value) {
+        if (this.current == null) return;
+        if ("globals".equals(name)) {
+            this.current.crossFile = true;
+        } else {
+            onAccess(value);
+        }
+    }
+
+    void onBindingWrite() {
+        if (this.current != null) this.current.crossFile = true;
+    }
+
+    /**
+     * Called when a script accesses a registry.
+     */
+    public void onAccess(Object registry) {
+        if (this.current != null && registry instanceof IScriptReloadable) {
+            this.current.registries.add(registry);
+        }
+    }
+
+    /**
+     * Called when a reloadable registry or a forge registry is modified.
+     */
+    public void onWrite(Object registry) {
+        if (this.current != null) {
+            this.current.registries.add(registry);
+        }
+    }
+
+    /**
+     * Called when a script registers an event listener.
+     */
+    public void onListen() {
+        if (this.current != null) this.current.listener = true;
+    }
+
+    private String relativize(File file) {
+        return FileUtil.relativize(this.scriptRoot, file.getPath());
+    }
+
+    private static class ScriptRecord {
+
+        private final long lastModified;
+        private final String contentHash;
+        private final Set<Object> registries = new ObjectOpenHashSet<>();
+        private boolean listener;
+        private boolean crossFile;
+
+        private ScriptRecord(File file) {
+            this.lastModified = file.lastModified();
+            this.contentHash = CompiledScript.hashFile(file);
+        }
+
+        private boolean isUnchanged(File file) {
+            return file.lastModified() == this.lastModified || (this.contentHash != null && this.contentHash.equals(CompiledScript.hashFile(file)));
+        }
+    }
+}
@@ -3,31 +3,29 @@ package com.cleanroommc.groovyscript.sandbox.mapper;
 import com.cleanroommc.groovyscript.GroovyScript;
 import com.cleanroommc.groovyscript.api.GroovyLog;
 import it.unimi.dsi.fastutil.chars.Char2ObjectOpenHashMap;
-import it.unimi.dsi.fastutil.objects.Object2ObjectMaps;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-import org.apache.commons.lang3.tuple.Pair;
 import org.codehaus.groovy.ast.ClassHelper;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.Parameter;
 import org.jetbrains.annotations.ApiStatus;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.BufferedReader;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class GroovyDeobfMapper {
 
-    private static final Map<String, Map<String, String>> DEOBF_METHODS = new Object2ObjectOpenHashMap<>();
-    private static final Map<String, Map<String, String>> DEOBF_FIELDS = new Object2ObjectOpenHashMap<>();
-    private static final Map<String, Map<String, String>> OBF_FIELD_NAMES = new Object2ObjectOpenHashMap<>();
-    private static final Map<String, Map<String, MethodInfo>> OBF_METHOD_NAMES = new Object2ObjectOpenHashMap<>();
+    private static final ClassMappings NO_MAPPINGS = new ClassMappings();
+    // mappings of each class which was looked up, decoded from the table on first use
+    private static final Map<String, ClassMappings> CLASS_MAPPINGS = new ConcurrentHashMap<>();
     private static final Char2ObjectOpenHashMap<String> PRIMITIVE_DESC_MAP = new Char2ObjectOpenHashMap<>();
+    private static SrgTable table;
 
     static {
         PRIMITIVE_DESC_MAP.put('I', "java.lang.Integer");
@@ -40,75 +38,56 @@ public class GroovyDeobfMapper {
         PRIMITIVE_DESC_MAP.put('Z', "java.lang.Boolean");
     }
 
+    /**
+     * Loads the mapping table which is generated from the srg mappings at build time. If the table is missing, like in some IDE setups,
+     * the srg mappings are converted instead.
+     */
     @ApiStatus.Internal
     public static void init() {
-        GroovyScript.LOGGER.info("Generating obfuscation map...");
-        DEOBF_METHODS.clear();
-        DEOBF_FIELDS.clear();
-        OBF_FIELD_NAMES.clear();
-        OBF_METHOD_NAMES.clear();
+        CLASS_MAPPINGS.clear();
+        table = null;
         try {
-            String splitter = " ";
-            String method = "MD:";
-            String field = "FD:";
-
-            InputStream stream = GroovyDeobfMapper.class.getResourceAsStream("/assets/groovyscript/mappings.srg");
-            try (BufferedReader br = new BufferedReader(new InputStreamReader(stream))) {
-                String line;
-                while ((line = br.readLine()) != null) {
-                    String[] parts = line.split(splitter);
-
-                    if (parts[0].equals(field)) {
-                        int index = parts[1].lastIndexOf("/");
-                        String className = parts[1].substring(0, index);
-                        String fieldObf = parts[1].substring(index + 1);
-                        String fieldDeobf = parts[2].substring(index + 1);
-                        if (!fieldObf.equals(fieldDeobf)) {
-                            className = className.replace('/', '.');
-                            DEOBF_FIELDS.computeIfAbsent(className, key -> new Object2ObjectOpenHashMap<>()).put(fieldObf, fieldDeobf);
-                            OBF_FIELD_NAMES.computeIfAbsent(className, key -> new Object2ObjectOpenHashMap<>()).put(fieldDeobf, fieldObf);
-                        }
-                    } else if (parts[0].equals(method)) {
-                        int index = parts[1].lastIndexOf("/");
-                        String className = parts[1].substring(0, index);
-                        String methodObf = parts[1].substring(index + 1);
-                        String methodArgs = parts[2];
-                        String methodDeobf = parts[3].substring(index + 1);
-                        if (!methodObf.equals(methodDeobf)) {
-                            className = className.replace('/', '.');
-                            DEOBF_METHODS.computeIfAbsent(className, key -> new Object2ObjectOpenHashMap<>()).put(methodObf, methodDeobf);
-                            Map<String, MethodInfo> map = OBF_METHOD_NAMES.computeIfAbsent(className, key -> new Object2ObjectOpenHashMap<>());
-                            MethodInfo info = map.get(methodDeobf);
-                            if (info == null) {
-                                info = new MethodInfo(methodDeobf, methodObf, methodArgs);
-                                map.put(methodDeobf, info);
-                            } else {
-                                info.registerOverloadedMethod(methodObf, methodArgs);
-                            }
-                        }
-                    }
+            InputStream stream = GroovyDeobfMapper.class.getResourceAsStream("/assets/groovyscript/mappings.bin");
+            if (stream != null) {
+                try (InputStream in = stream) {
+                    table = SrgTable.read(in);
+                }
+            } else {
+                GroovyScript.LOGGER.info("Generating obfuscation map...");
+                try (InputStreamReader reader = new InputStreamReader(GroovyDeobfMapper.class.getResourceAsStream("/assets/groovyscript/mappings.srg"), StandardCharsets.UTF_8)) {
+                    table = SrgTable.of(SrgTable.compile(reader));
                 }
             }
-            GroovyScript.LOGGER.info("Read {} field and {} method mapping names", DEOBF_FIELDS.size(), DEOBF_METHODS.size());
+            GroovyScript.LOGGER.info("Read mapping names of {} classes", table.getClassCount());
         } catch (Exception e) {
             e.printStackTrace();
         }
     }
 
+    private static ClassMappings getMappings(String className) {
+        if (table == null) return NO_MAPPINGS;
+        return CLASS_MAPPINGS.computeIfAbsent(className, name -> {
+            ClassMappings mappings = new ClassMappings();
+            return table.visitClass(name, mappings) ? mappings : NO_MAPPINGS;
+        });
+    }
+
     public static @Nullable String getDeobfMethod(Class<?> clazz, String obfMethod) {
-        return DEOBF_METHODS.getOrDefault(clazz.getName(), Object2ObjectMaps.emptyMap()).get(obfMethod);
+        Map<String, String> methods = getMappings(clazz.getName()).deobfMethods;
+        return methods == null ? null : methods.get(obfMethod);
     }
 
     public static @Nullable String getDeobfField(Class<?> clazz, String obfField) {
-        return DEOBF_FIELDS.getOrDefault(clazz.getName(), Object2ObjectMaps.emptyMap()).get(obfField);
+        Map<String, String> fields = getMappings(clazz.getName()).deobfFields;
+        return fields == null ? null : fields.get(obfField);
     }
 
     public static Map<String, String> getDeobfMethods(Class<?> clazz) {
-        return DEOBF_METHODS.get(clazz.getName());
+        return getMappings(clazz.getName()).deobfMethods;
     }
 
     public static Map<String, String> getDeobfFields(Class<?> clazz) {
-        return DEOBF_FIELDS.get(clazz.getName());
+        return getMappings(clazz.getName()).deobfFields;
     }
 
     public static String getObfuscatedMethodName(ClassNode receiver, String method, Parameter[] args) {
@@ -117,7 +96,7 @@ public class GroovyDeobfMapper {
         String obfName = null;
 
         do {
-            obfNames = OBF_METHOD_NAMES.get(receiver.getName());
+            obfNames = getMappings(receiver.getName()).obfMethodNames;
             if (obfNames != null) {
                 MethodInfo methodInfo = obfNames.get(method);
                 if (methodInfo != null) {
@@ -136,7 +115,7 @@ public class GroovyDeobfMapper {
         String obfName = null;
 
         do {
-            obfNames = OBF_FIELD_NAMES.get(receiver.getName());
+            obfNames = getMappings(receiver.getName()).obfFieldNames;
             if (obfNames != null) {
                 obfName = obfNames.get(field);
             }
@@ -146,11 +125,46 @@ public class GroovyDeobfMapper {
         return obfName != null ? obfName : field;
     }
 
+    /**
+     * The mappings of a single class. Maps are null if the class has no mappings of that kind.
+     */
+    private static class ClassMappings implements SrgTable.MemberVisitor {
+
+        private Map<String, String> deobfMethods;
+        private Map<String, String> deobfFields;
+        private Map<String, String> obfFieldNames;
+        private Map<String, MethodInfo> obfMethodNames;
+
+        @Override
+        public void visitField(String obfName, String deobfName) {
+            if (this.deobfFields == null) {
+                this.deobfFields = new Object2ObjectOpenHashMap<>();
+                this.obfFieldNames = new Object2ObjectOpenHashMap<>();
+            }
+            this.deobfFields.put(obfName, deobfName);
+            this.obfFieldNames.put(deobfName, obfName);
+        }
+
+        @Override
+        public void visitMethod(String obfName, String deobfName, String descriptor) {
+            if (this.deobfMethods == null) {
+                this.deobfMethods = new Object2ObjectOpenHashMap<>();
+                this.obfMethodNames = new Object2ObjectOpenHashMap<>();
+            }
+            this.deobfMethods.put(obfName, deobfName);
+            MethodInfo info = this.obfMethodNames.get(deobfName);
+            if (info == null) {
+                this.obfMethodNames.put(deobfName, new MethodInfo(deobfName, obfName, descriptor));
+            } else {
+                info.registerOverloadedMethod(obfName, descriptor);
+            }
+        }
+    }
+
     private static class MethodInfo {
 
         private final String deobfName;
-        //private Object2ObjectOpenCustomHashMap<Object[], String> obfNames;
-        private List<Pair<String[], String>> obfNames;
+        private List<Overload> obfNames;
         private final String defObfName;
         private final String defArgs;
 
@@ -163,35 +177,27 @@ public class GroovyDeobfMapper {
         public void registerOverloadedMethod(String obfName, String args) {
             if (obfName.equals(defObfName)) return;
             if (obfNames == null) {
-                //obfNames = new Object2ObjectOpenCustomHashMap<>(PARAM_HASH_STRATEGY);
-                //obfNames.put(makeClassArray(defArgs), defObfName);
                 obfNames = new ArrayList<>();
-                obfNames.add(Pair.of(makeClassArray(defArgs), defObfName));
+                obfNames.add(new Overload(makeClassArray(defArgs), defObfName));
             }
-            obfNames.add(Pair.of(makeClassArray(args), obfName));
+            obfNames.add(new Overload(makeClassArray(args), obfName));
         }
 
         public String findMethod(Parameter[] args) {
             if (this.obfNames == null) {
                 return this.defObfName;
             }
-            List<String> results = this.obfNames.stream()
-                    .filter(pair -> pair.getKey().length == args.length)
-                    .filter(pair -> {
-                        for (int i = 0; i < args.length; i++) {
-                            String origParam = pair.getKey()[i];
-                            if (!matches(origParam, args[i])) {
-                                return false;
-                            }
-                        }
-                        return true;
-                    })
-                    .map(Pair::getValue)
-                    .collect(Collectors.toList());
-            if (results.isEmpty()) return null;
-            if (results.size() == 1) return results.get(0);
-            GroovyLog.get().errorMC("Multiple methods match the name {} and params {}", this.deobfName, Arrays.toString(args));
-            return results.get(0);
+            String result = null;
+            for (Overload overload : this.obfNames) {
+                if (overload.matches(args)) {
+                    if (result != null) {
+                        GroovyLog.get().errorMC("Multiple methods match the name {} and params {}", this.deobfName, Arrays.toString(args));
+                        return result;
+                    }
+                    result = overload.obfName;
+                }
+            }
+            return result;
         }
 
         public static boolean matches(String original, Parameter param) {
@@ -246,4 +252,25 @@ public class GroovyDeobfMapper {
             return classes.toArray(new String[0]);
         }
     }
+
+    private static class Overload {
+
+        private final String[] params;
+        private final String obfName;
+
+        private Overload(String[] params, String obfName) {
+            this.params = params;
+            this.obfName = obfName;
+        }
+
+        private boolean matches(Parameter[] args) {
+            if (this.params.length != args.length) return false;
+            for (int i = 0; i < args.length; i++) {
+                if (!MethodInfo.matches(this.params[i], args[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
 }
@@ -0,0 +1,218 @@
+package com.cleanroommc.groovyscript.sandbox.mapper;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.*;
+
+/**
+ * The srg mappings in a compact binary form. The table is built from the text mappings at build time by {@link #main(String[])} and read
+ * at runtime without parsing. Classes are sorted by name and found with a binary search, so only the classes which are actually used are
+ * decoded.
+ * <p>
+ * Layout: a header with the class count, then the name offset and data offset of each class, then the member data of each class and
+ * finally a pool of all strings. Each member stores offsets into the string pool, so repeated strings like descriptors are only stored
+ * once.
+ * <p>
+ * This class must not depend on anything but the JDK, since it runs as part of the build.
+ */
+public class SrgTable {
+
+    private static final int MAGIC = 0x47535247; // GSRG
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
+    private final ByteBuffer buffer;
+    private final int classCount;
+
+    private SrgTable(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Invalid srg table");
+        }
+        this.classCount = buffer.getInt(8);
+    }
+
+    public static SrgTable read(InputStream stream) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(stream.available(), 8192));
+        byte[] bytes = new byte[8192];
+        int read;
+        while ((read = stream.read(bytes)) >= 0) {
+            out.write(bytes, 0, read);
+        }
+        return new SrgTable(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    public static SrgTable of(byte[] table) {
+        return new SrgTable(ByteBuffer.wrap(table));
+    }
+
+    public int getClassCount() {
+        return classCount;
+    }
+
+    /**
+     * Decodes the mappings of a class.
+     *
+     * @param className the class name with dots
+     * @param visitor   receives each field and method of the class in the order of the srg file
+     * @return false if the class has no mappings
+     */
+    public boolean visitClass(String className, MemberVisitor visitor) {
+        int index = findClass(className);
+        if (index < 0) return false;
+        int pos = this.buffer.getInt(HEADER_SIZE + 4 * (this.classCount + index));
+        int fieldCount = this.buffer.getInt(pos);
+        pos += 4;
+        for (int i = 0; i < fieldCount; i++, pos += 8) {
+            visitor.visitField(getString(this.buffer.getInt(pos)), getString(this.buffer.getInt(pos + 4)));
+        }
+        int methodCount = this.buffer.getInt(pos);
+        pos += 4;
+        for (int i = 0; i < methodCount; i++, pos += 12) {
+            visitor.visitMethod(getString(this.buffer.getInt(pos)), getString(this.buffer.getInt(pos + 4)), getString(this.buffer.getInt(pos + 8)));
+        }
+        return true;
+    }
+
+    private int findClass(String className) {
+        int low = 0, high = this.classCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int c = getString(this.buffer.getInt(HEADER_SIZE + 4 * mid)).compareTo(className);
+            if (c < 0) {
+                low = mid + 1;
+            } else if (c > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -1;
+    }
+
+    private String getString(int offset) {
+        int length = this.buffer.getShort(offset) & 0xFFFF;
+        return new String(this.buffer.array(), this.buffer.arrayOffset() + offset + 2, length, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Converts srg mappings to a table. Only members whose name differs after remapping are kept.
+     *
+     * @param srg the text mappings
+     * @return the binary table
+     */
+    public static byte[] compile(Reader srg) throws IOException {
+        Map<String, ClassData> classes = new TreeMap<>();
+        BufferedReader br = new BufferedReader(srg);
+        String line;
+        while ((line = br.readLine()) != null) {
+            String[] parts = line.split(" ");
+            if (parts[0].equals("FD:")) {
+                int index = parts[1].lastIndexOf('/');
+                String fieldObf = parts[1].substring(index + 1);
+                String fieldDeobf = parts[2].substring(index + 1);
+                if (!fieldObf.equals(fieldDeobf)) {
+                    String className = parts[1].substring(0, index).replace('/', '.');
+                    classes.computeIfAbsent(className, key -> new ClassData()).fields.add(new String[]{fieldObf, fieldDeobf});
+                }
+            } else if (parts[0].equals("MD:")) {
+                int index = parts[1].lastIndexOf('/');
+                String methodObf = parts[1].substring(index + 1);
+                String methodDeobf = parts[3].substring(index + 1);
+                if (!methodObf.equals(methodDeobf)) {
+                    String className = parts[1].substring(0, index).replace('/', '.');
+                    classes.computeIfAbsent(className, key -> new ClassData()).methods.add(new String[]{methodObf, methodDeobf, parts[2]});
+                }
+            }
+        }
+
+        int dataSize = 0;
+        for (ClassData data : classes.values()) {
+            dataSize += 8 + 8 * data.fields.size() + 12 * data.methods.size();
+        }
+        int stringStart = HEADER_SIZE + 8 * classes.size() + dataSize;
+        StringPool strings = new StringPool(stringStart);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(stringStart);
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeInt(classes.size());
+        for (String className : classes.keySet()) {
+            out.writeInt(strings.add(className));
+        }
+        int dataOffset = HEADER_SIZE + 8 * classes.size();
+        for (ClassData data : classes.values()) {
+            out.writeInt(dataOffset);
+            dataOffset += 8 + 8 * data.fields.size() + 12 * data.methods.size();
+        }
+        for (ClassData data : classes.values()) {
+            out.writeInt(data.fields.size());
+            for (String[] field : data.fields) {
+                out.writeInt(strings.add(field[0]));
+                out.writeInt(strings.add(field[1]));
+            }
+            out.writeInt(data.methods.size());
+            for (String[] method : data.methods) {
+                out.writeInt(strings.add(method[0]));
+                out.writeInt(strings.add(method[1]));
+                out.writeInt(strings.add(method[2]));
+            }
+        }
+        out.flush();
+        strings.bytes.writeTo(bytes);
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Converts the srg file in the first argument to a table in the second argument. Used by the build.
+     */
+    public static void main(String[] args) throws IOException {
+        byte[] table;
+        try (Reader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            table = compile(reader);
+        }
+        File output = new File(args[1]);
+        output.getParentFile().mkdirs();
+        Files.write(output.toPath(), table);
+    }
+
+    public interface MemberVisitor {
+
+        void visitField(String obfName, String deobfName);
+
+        void visitMethod(String obfName, String deobfName, String descriptor);
+    }
+
+    private static class ClassData {
+
+        private final List<String[]> fields = new ArrayList<>();
+        private final List<String[]> methods = new ArrayList<>();
+    }
+
+    private static class StringPool {
+
+        private final Map<String, Integer> offsets = new HashMap<>();
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final int start;
+
+        private StringPool(int start) {
+            this.start = start;
+        }
+
+        private int add(String s) {
+            Integer offset = this.offsets.get(s);
+            if (offset != null) return offset;
+            offset = this.start + this.bytes.size();
+            byte[] utf = s.getBytes(StandardCharsets.UTF_8);
+            this.bytes.write(utf.length >>> 8);
+            this.bytes.write(utf.length);
+            this.bytes.write(utf, 0, utf.length);
+            this.offsets.put(s, offset);
+            return offset;
+        }
+    }
+}
@@ -6,6 +6,9 @@ import com.cleanroommc.groovyscript.compat.mods.GroovyPropertyContainer;
 import com.cleanroommc.groovyscript.registry.VirtualizedRegistry;
 import com.cleanroommc.groovyscript.sandbox.GroovyLogImpl;
 import com.cleanroommc.groovyscript.sandbox.expand.LambdaClosure;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import groovy.lang.GroovyClassLoader;
 import groovy.lang.GroovyShell;
 import groovy.lang.MetaMethod;
@@ -24,6 +27,7 @@ import org.objectweb.asm.tree.ClassNode;
 import java.io.PrintWriter;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 
 public class GroovySecurityManager {
@@ -32,9 +36,14 @@ public class GroovySecurityManager {
     private static final String blacklistDesc = Type.getDescriptor(GroovyBlacklist.class);
 
     private final List<String> bannedPackages = new ArrayList<>();
+    private final PrefixTrie bannedPackageTrie = new PrefixTrie();
     private final Set<String> bannedClasses = new ObjectOpenHashSet<>();
     private final Map<String, Set<String>> bannedMethods = new Object2ObjectOpenHashMap<>();
     private final Set<String> whiteListedClasses = new ObjectOpenHashSet<>();
+    // verdicts are computed once per class, the caches are replaced whenever the blacklist changes
+    private volatile ClassValue<Boolean> validClasses = createValidClassCache();
+    private volatile ClassValue<Set<String>> bannedMethodsByClass = createBannedMethodCache();
+    private volatile HashCode blacklistHash;
 
     private GroovySecurityManager() {
         initDefaults();
@@ -87,6 +96,7 @@ public class GroovySecurityManager {
 
     public void unBanClass(Class<?> clazz) {
         whiteListedClasses.add(clazz.getName());
+        invalidateCaches();
     }
 
     public void unBanClasses(Class<?>... classes) {
@@ -97,10 +107,13 @@ public class GroovySecurityManager {
 
     public void banPackage(String packageName) {
         bannedPackages.add(packageName);
+        bannedPackageTrie.add(packageName);
+        invalidateCaches();
     }
 
     public void banClass(Class<?> clazz) {
         bannedClasses.add(clazz.getName());
+        invalidateCaches();
     }
 
     public void banClasses(Class<?>... classes) {
@@ -111,10 +124,80 @@ public class GroovySecurityManager {
 
     public void banMethods(Class<?> clazz, String... method) {
         Collections.addAll(bannedMethods.computeIfAbsent(clazz.getName(), key -> new ObjectOpenHashSet<>()), method);
+        invalidateCaches();
     }
 
     public void banMethods(Class<?> clazz, Collection<String> method) {
         bannedMethods.computeIfAbsent(clazz.getName(), key -> new ObjectOpenHashSet<>()).addAll(method);
+        invalidateCaches();
+    }
+
+    private void invalidateCaches() {
+        this.validClasses = createValidClassCache();
+        this.bannedMethodsByClass = createBannedMethodCache();
+        this.blacklistHash = null;
+    }
+
+    /**
+     * @return a hash of all banned and whitelisted names, which changes whenever the blacklist changes
+     */
+    public HashCode getBlacklistHash() {
+        HashCode hash = this.blacklistHash;
+        if (hash == null) {
+            Hasher hasher = Hashing.murmur3_128().newHasher();
+            putSorted(hasher, bannedPackages);
+            putSorted(hasher, bannedClasses);
+            putSorted(hasher, whiteListedClasses);
+            for (String className : new TreeSet<>(bannedMethods.keySet())) {
+                hasher.putString(className, StandardCharsets.UTF_8);
+                putSorted(hasher, bannedMethods.get(className));
+            }
+            hash = hasher.hash();
+            this.blacklistHash = hash;
+        }
+        return hash;
+    }
+
+    private static void putSorted(Hasher hasher, Collection<String> values) {
+        for (String value : new TreeSet<>(values)) {
+            hasher.putString(value, StandardCharsets.UTF_8);
+        }
+        hasher.putInt(values.size());
+    }
+
+    private ClassValue<Boolean> createValidClassCache() {
+        return new ClassValue<>() {
+
+            @Override
+            protected Boolean computeValue(Class<?> clazz) {
+                return whiteListedClasses.contains(clazz.getName()) || (isValidClass(clazz) && isValidPackage(clazz));
+            }
+        };
+    }
+
+    private ClassValue<Set<String>> createBannedMethodCache() {
+        return new ClassValue<>() {
+
+            @Override
+            protected Set<String> computeValue(Class<?> clazz) {
+                Set<String> methods = null;
+                for (Class<?> receiver = clazz; receiver != null && receiver != Object.class; receiver = receiver.getSuperclass()) {
+                    methods = addBannedMethods(methods, receiver);
+                    for (Class<?> interf : receiver.getInterfaces()) {
+                        methods = addBannedMethods(methods, interf);
+                    }
+                }
+                return methods == null ? Collections.emptySet() : methods;
+            }
+        };
+    }
+
+    private Set<String> addBannedMethods(Set<String> methods, Class<?> clazz) {
+        Set<String> banned = bannedMethods.get(clazz.getName());
+        if (banned == null) return methods;
+        if (methods == null) methods = new ObjectOpenHashSet<>();
+        methods.addAll(banned);
+        return methods;
     }
 
     public boolean isValid(Method method) {
@@ -134,16 +217,11 @@ public class GroovySecurityManager {
     }
 
     public boolean isValid(Class<?> clazz) {
-        return this.whiteListedClasses.contains(clazz.getName()) || (isValidClass(clazz) && isValidPackage(clazz));
+        return this.validClasses.get(clazz);
     }
 
     public boolean isValidPackage(String className) {
-        for (String bannedPackage : bannedPackages) {
-            if (className.startsWith(bannedPackage)) {
-                return false;
-            }
-        }
-        return true;
+        return !bannedPackageTrie.matchesPrefix(className);
     }
 
     public boolean isValidPackage(Class<?> clazz) {
@@ -155,14 +233,7 @@ public class GroovySecurityManager {
     }
 
     public boolean isValidMethod(Class<?> receiver, String method) {
-        while (receiver != null && receiver != Object.class) {
-            if (isMethodBannedFromClass(receiver.getName(), method)) return false;
-            for (Class<?> interf : receiver.getInterfaces()) {
-                if (isMethodBannedFromClass(interf.getName(), method)) return false;
-            }
-            receiver = receiver.getSuperclass();
-        }
-        return true;
+        return receiver == null || !this.bannedMethodsByClass.get(receiver).contains(method);
     }
 
     public boolean isValidMethod(ClassNode receiver, String method) {
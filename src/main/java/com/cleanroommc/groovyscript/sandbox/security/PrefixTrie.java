@@ -0,0 +1,39 @@
+package com.cleanroommc.groovyscript.sandbox.security;
+
+import it.unimi.dsi.fastutil.chars.Char2ObjectOpenHashMap;
+
+/**
+ * A set of string prefixes. Checking if a string starts with any of the prefixes only walks the string once, no matter how many prefixes
+ * there are.
+ */
+class PrefixTrie {
+
+    private final Node root = new Node();
+
+    void add(String prefix) {
+        Node node = this.root;
+        for (int i = 0; i < prefix.length(); i++) {
+            node = node.children.computeIfAbsent(prefix.charAt(i), c -> new Node());
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * @return true if the string starts with any prefix of this trie
+     */
+    boolean matchesPrefix(String s) {
+        Node node = this.root;
+        for (int i = 0; !node.terminal; i++) {
+            if (i == s.length()) return false;
+            node = node.children.get(s.charAt(i));
+            if (node == null) return false;
+        }
+        return true;
+    }
+
+    private static class Node {
+
+        private final Char2ObjectOpenHashMap<Node> children = new Char2ObjectOpenHashMap<>(2);
+        private boolean terminal;
+    }
+}
@@ -10,12 +10,15 @@ import net.minecraftforge.fml.relauncher.FMLLaunchHandler;
 import org.codehaus.groovy.ast.ClassNode;
 import org.codehaus.groovy.ast.MethodNode;
 import org.codehaus.groovy.reflection.*;
+import org.jetbrains.annotations.Nullable;
+import org.objectweb.asm.Type;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.security.PrivilegedAction;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 
 /**
  * A helper class that filters blacklisted fields and methods and remaps their names if needed
@@ -33,15 +36,37 @@ public class GroovyCodeFactory {
 
     public static PrivilegedAction<CachedField[]> makeFieldsHook(CachedClass cachedClass) {
         return () -> {
+            Class<?> clazz = cachedClass.getTheClass();
+            Field[] fields = clazz.getDeclaredFields();
+            ReflectionMetadataCache.Members cached = ReflectionMetadataCache.getFields(clazz, fields.length);
+            if (cached != null) {
+                // the fields were already filtered and remapped on a previous launch
+                return Arrays.stream(fields)
+                        .map(f -> makeField(f, cached.getName(f.getName())))
+                        .filter(Objects::nonNull)
+                        .toArray(CachedField[]::new);
+            }
             final boolean remap = shouldRemap(cachedClass);
-            return Arrays.stream(cachedClass.getTheClass().getDeclaredFields())
+            ReflectionMetadataCache.Members members = new ReflectionMetadataCache.Members(fields.length);
+            CachedField[] result = Arrays.stream(fields)
                     .filter(f -> ReflectionUtils.checkCanSetAccessible(f, CachedClass.class))
                     .filter(GroovySecurityManager.INSTANCE::isValid)
-                    .map(f -> makeField(cachedClass, f, remap))
+                    .map(f -> {
+                        CachedField field = makeField(cachedClass, f, remap);
+                        members.add(f.getName(), field.getName());
+                        return field;
+                    })
                     .toArray(CachedField[]::new);
+            ReflectionMetadataCache.putFields(clazz, members);
+            return result;
         };
     }
 
+    private static @Nullable CachedField makeField(Field field, @Nullable String name) {
+        if (name == null) return null;
+        return name.equals(field.getName()) ? new CachedField(field) : new RemappedCachedField(field, name);
+    }
+
     private static CachedField makeField(CachedClass cachedClass, Field field, boolean tryRemap) {
         if (tryRemap) {
             String deobfName = GroovyDeobfMapper.getDeobfField(cachedClass.getTheClass(), field.getName());
@@ -64,20 +89,47 @@ public class GroovyCodeFactory {
     public static PrivilegedAction<CachedMethod[]> makeMethodsHook(CachedClass cachedClass) {
         return () -> {
             try {
+                Class<?> clazz = cachedClass.getTheClass();
+                Method[] methods = clazz.getDeclaredMethods();
+                ReflectionMetadataCache.Members cached = ReflectionMetadataCache.getMethods(clazz, methods.length);
+                if (cached != null) {
+                    // the methods were already filtered and remapped on a previous launch
+                    return Arrays.stream(methods)
+                            .map(m -> makeMethod(cachedClass, m, cached.getName(getMethodKey(m))))
+                            .filter(Objects::nonNull)
+                            .distinct()
+                            .toArray(CachedMethod[]::new);
+                }
                 final boolean remap = shouldRemap(cachedClass);
-                return Arrays.stream(cachedClass.getTheClass().getDeclaredMethods())
+                ReflectionMetadataCache.Members members = new ReflectionMetadataCache.Members(methods.length);
+                CachedMethod[] result = Arrays.stream(methods)
                         .filter(m -> m.getName().indexOf('+') < 0) // no synthetic JDK 5+ methods
                         .filter(m -> ReflectionUtils.checkCanSetAccessible(m, CachedClass.class))
                         .filter(GroovySecurityManager.INSTANCE::isValid)
-                        .map(m -> makeMethod(cachedClass, m, remap))
+                        .map(m -> {
+                            CachedMethod method = makeMethod(cachedClass, m, remap);
+                            members.add(getMethodKey(m), method.getName());
+                            return method;
+                        })
                         .distinct()
                         .toArray(CachedMethod[]::new);
+                ReflectionMetadataCache.putMethods(clazz, members);
+                return result;
             } catch (LinkageError e) {
                 return CachedMethod.EMPTY_ARRAY;
             }
         };
     }
 
+    private static String getMethodKey(Method method) {
+        return method.getName() + Type.getMethodDescriptor(method);
+    }
+
+    private static @Nullable CachedMethod makeMethod(CachedClass cachedClass, Method method, @Nullable String name) {
+        if (name == null) return null;
+        return name.equals(method.getName()) ? new CachedMethod(cachedClass, method) : new RemappedCachedMethod(cachedClass, method, name);
+    }
+
     private static CachedMethod makeMethod(CachedClass cachedClass, Method method, boolean tryRemap) {
         if (tryRemap) {
             String deobfName = GroovyDeobfMapper.getDeobfMethod(cachedClass.getTheClass(), method.getName());
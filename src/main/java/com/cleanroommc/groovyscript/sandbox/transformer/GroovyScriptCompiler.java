@@ -16,13 +16,24 @@ public class GroovyScriptCompiler extends CompilationCustomizer {
     private static final String SIDE_ONLY_CLASS = "net.minecraftforge.fml.relauncher.SideOnly";
     private static final String SIDE_CLASS = "net.minecraftforge.fml.relauncher.Side";
 
+    private final boolean foldObjectMappers;
+
     public GroovyScriptCompiler() {
+        this(false);
+    }
+
+    /**
+     * @param foldObjectMappers if object mapper calls with only literal arguments should only be evaluated once per call site. Must be false
+     *                          if the code is only compiled for analysis, since the calls are replaced.
+     */
+    public GroovyScriptCompiler(boolean foldObjectMappers) {
         super(CompilePhase.CANONICALIZATION);
+        this.foldObjectMappers = foldObjectMappers;
     }
 
     @Override
     public void call(SourceUnit source, GeneratorContext context, ClassNode classNode) throws CompilationFailedException {
-        GroovyScriptTransformer visitor = new GroovyScriptTransformer(source, classNode);
+        GroovyScriptTransformer visitor = new GroovyScriptTransformer(source, classNode, this.foldObjectMappers);
         classNode.getMethods().removeIf(m -> {
             if (isBannedFromSide(m)) return true;
             forbidIfFinalizer(m);
@@ -37,6 +48,7 @@ public class GroovyScriptCompiler extends CompilationCustomizer {
             visitor.visitField(f);
             return false;
         });
+        visitor.finish();
     }
 
     private static boolean isBannedFromSide(AnnotatedNode node) {
@@ -7,26 +7,54 @@ import com.cleanroommc.groovyscript.mapper.ObjectMapperManager;
 import org.codehaus.groovy.ast.ClassCodeExpressionTransformer;
 import org.codehaus.groovy.ast.ClassHelper;
 import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.FieldNode;
 import org.codehaus.groovy.ast.Parameter;
 import org.codehaus.groovy.ast.expr.*;
 import org.codehaus.groovy.control.SourceUnit;
 import org.codehaus.groovy.syntax.SyntaxException;
+import org.objectweb.asm.Opcodes;
 
 import java.io.File;
 import java.io.PrintWriter;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
 public class GroovyScriptTransformer extends ClassCodeExpressionTransformer {
 
     private static final ClassNode groovyFile = ClassHelper.makeCached(GroovyFile.class);
+    private static final ClassNode objectMapperManager = ClassHelper.makeCached(ObjectMapperManager.class);
+    private static final String OBJECT_MAPPER_CONSTANTS = "$objectMapperConstants";
     private final SourceUnit source;
     private final ClassNode classNode;
+    private final boolean foldObjectMappers;
+    private FieldNode constantsField;
+    private int constantCount;
+    private int closureDepth;
 
     public GroovyScriptTransformer(SourceUnit source, ClassNode classNode) {
+        this(source, classNode, false);
+    }
+
+    /**
+     * @param foldObjectMappers if object mapper calls with only literal arguments should only be evaluated once per call site
+     */
+    public GroovyScriptTransformer(SourceUnit source, ClassNode classNode, boolean foldObjectMappers) {
         this.source = source;
         this.classNode = classNode;
+        // fields can't be added to interfaces and traits
+        this.foldObjectMappers = foldObjectMappers && !classNode.isInterface();
+    }
+
+    /**
+     * Adds the field which stores the values of folded object mapper calls. Must be called after the class was transformed.
+     */
+    public void finish() {
+        if (this.constantsField != null) {
+            this.constantsField.setInitialValueExpression(new ArrayExpression(ClassHelper.OBJECT_TYPE, null, Collections.singletonList(new ConstantExpression(this.constantCount, true))));
+            this.classNode.addField(this.constantsField);
+        }
     }
 
     @Override
@@ -84,18 +112,23 @@ public class GroovyScriptTransformer extends ClassCodeExpressionTransformer {
     }
 
     private Expression transformClosure(ClosureExpression closure) {
-        // ClosureExpression.transformExpression doesn't visit the code inside
-        Parameter[] parameters = closure.getParameters();
-        if (parameters != null) {
-            // Explicitly defined parameters, i.e., ".findAll { i -> i == 'bar' }"
-            for (Parameter p : parameters) {
-                if (p.hasInitialExpression()) {
-                    Expression init = p.getInitialExpression();
-                    p.setInitialExpression(transform(init));
+        this.closureDepth++;
+        try {
+            // ClosureExpression.transformExpression doesn't visit the code inside
+            Parameter[] parameters = closure.getParameters();
+            if (parameters != null) {
+                // Explicitly defined parameters, i.e., ".findAll { i -> i == 'bar' }"
+                for (Parameter p : parameters) {
+                    if (p.hasInitialExpression()) {
+                        Expression init = p.getInitialExpression();
+                        p.setInitialExpression(transform(init));
+                    }
                 }
             }
+            closure.getCode().visit(this);
+        } finally {
+            this.closureDepth--;
         }
-        closure.getCode().visit(this);
         return closure;
     }
 
@@ -108,8 +141,42 @@ public class GroovyScriptTransformer extends ClassCodeExpressionTransformer {
                         .collect(Collectors.toList());
                 String msg = GroovyLog.format("Can't infer ObjectMapper from name {}, since one is added by {} mods. " + "Please choose one of the following: {}", mce.getMethodAsString(), conflicts.size(), suggestions);
                 source.addError(new SyntaxException(msg, mce));
+            } else if (this.foldObjectMappers && this.closureDepth == 0) {
+                // inside a closure the delegate might have a method with the same name, for example a recipe builder in builder.with {}
+                Expression folded = foldObjectMapperCall(mce);
+                if (folded != null) return folded;
             }
         }
         return mce;
     }
+
+    /**
+     * Replaces an object mapper call with only literal arguments like {@code item('minecraft:stone')} with a call which parses the value
+     * once and stores it in a static field of the class.
+     */
+    private Expression foldObjectMapperCall(MethodCallExpression mce) {
+        String name = mce.getMethodAsString();
+        ObjectMapper<?> objectMapper = name == null ? null : ObjectMapperManager.getObjectMapper(name);
+        if (objectMapper == null || !objectMapper.isCacheable()) return null;
+        if (!(mce.getArguments() instanceof ArgumentListExpression arguments) || arguments.getExpressions().isEmpty()) return null;
+        // the script might declare a method with the same name
+        if (this.classNode.hasPossibleMethod(name, arguments)) return null;
+        List<Expression> args = arguments.getExpressions();
+        if (!(args.get(0) instanceof ConstantExpression first) || !(first.getValue() instanceof String)) return null;
+        for (Expression arg : args) {
+            if (!(arg instanceof ConstantExpression constant) || !(constant.getValue() instanceof String || constant.getValue() instanceof Number || constant.getValue() instanceof Boolean)) {
+                return null;
+            }
+        }
+        if (this.constantsField == null) {
+            this.constantsField = new FieldNode(OBJECT_MAPPER_CONSTANTS, Opcodes.ACC_PUBLIC | Opcodes.ACC_STATIC | Opcodes.ACC_SYNTHETIC, ClassHelper.OBJECT_TYPE.makeArray(), this.classNode, null);
+        }
+        List<Expression> constantArgs = new ArrayList<>();
+        constantArgs.add(new FieldExpression(this.constantsField));
+        constantArgs.add(new ConstantExpression(this.constantCount++, true));
+        constantArgs.add(new ConstantExpression(name));
+        constantArgs.addAll(args);
+        Expression call = makeCheckedCall(objectMapperManager, "getConstant", constantArgs);
+        return new CastExpression(ClassHelper.makeCached(objectMapper.getReturnType()), call);
+    }
 }
@@ -0,0 +1,224 @@
+package com.cleanroommc.groovyscript.sandbox.transformer;
+
+import com.cleanroommc.groovyscript.GroovyScript;
+import com.cleanroommc.groovyscript.sandbox.GroovyScriptSandbox;
+import com.cleanroommc.groovyscript.sandbox.SandboxData;
+import com.cleanroommc.groovyscript.sandbox.security.GroovySecurityManager;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.minecraft.launchwrapper.Launch;
+import net.minecraftforge.fml.common.Loader;
+import net.minecraftforge.fml.common.ModContainer;
+import net.minecraftforge.fml.relauncher.FMLLaunchHandler;
+import org.codehaus.groovy.vmplugin.VMPlugin;
+import org.jetbrains.annotations.ApiStatus;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which fields and methods of a class are visible to scripts and under which name, so {@link GroovyCodeFactory} doesn't need
+ * to check every member against the security manager and the deobfuscation mappings again. The result is saved in the cache directory
+ * and reused on the next launch if the mods, the java version and GroovyScript didn't change.
+ * <p>
+ * Members are identified by their name for fields and by name and descriptor for methods. An entry is only used if the class still has
+ * the same number of members and the blacklist didn't change since the entry was created.
+ */
+public class ReflectionMetadataCache {
+
+    private static final String FILE_NAME = "_reflection.bin";
+    private static final int MAGIC = 0x47535246; // GSRF
+    private static final int FORMAT_VERSION = 1;
+
+    private static final Map<String, Members> FIELDS = new ConcurrentHashMap<>();
+    private static final Map<String, Members> METHODS = new ConcurrentHashMap<>();
+    private static String fingerprint;
+    private static volatile boolean dirty;
+
+    /**
+     * Loads the cache of the last launch. Must be called after all mods are discovered.
+     */
+    @ApiStatus.Internal
+    public static void load() {
+        fingerprint = computeFingerprint();
+        if (GroovyScriptSandbox.DELETE_CACHE_ON_RUN) return;
+        File file = new File(SandboxData.getCachePath(), FILE_NAME);
+        if (!file.exists()) return;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(fingerprint)) {
+                return;
+            }
+            readMembers(in, FIELDS);
+            readMembers(in, METHODS);
+        } catch (IOException e) {
+            GroovyScript.LOGGER.error("Failed to read reflection cache", e);
+        }
+    }
+
+    /**
+     * Saves the cache if new classes were added since it was last saved.
+     */
+    @ApiStatus.Internal
+    public static void save() {
+        if (fingerprint == null || !dirty) return;
+        dirty = false;
+        File file = new File(SandboxData.getCachePath(), FILE_NAME);
+        File tmp = new File(file.getPath() + ".tmp");
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeUTF(fingerprint);
+                writeMembers(out, FIELDS);
+                writeMembers(out, METHODS);
+            }
+            Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            GroovyScript.LOGGER.error("Failed to write reflection cache", e);
+        }
+    }
+
+    static @Nullable Members getFields(Class<?> clazz, int declaredCount) {
+        return get(FIELDS, clazz, declaredCount);
+    }
+
+    static @Nullable Members getMethods(Class<?> clazz, int declaredCount) {
+        return get(METHODS, clazz, declaredCount);
+    }
+
+    static void putFields(Class<?> clazz, Members members) {
+        put(FIELDS, clazz, members);
+    }
+
+    static void putMethods(Class<?> clazz, Members members) {
+        put(METHODS, clazz, members);
+    }
+
+    private static @Nullable Members get(Map<String, Members> cache, Class<?> clazz, int declaredCount) {
+        if (!isCacheable(clazz)) return null;
+        Members members = cache.get(clazz.getName());
+        if (members == null || members.declaredCount != declaredCount || members.blacklistHash != getBlacklistHash()) return null;
+        return members;
+    }
+
+    private static void put(Map<String, Members> cache, Class<?> clazz, Members members) {
+        if (!isCacheable(clazz)) return;
+        cache.put(clazz.getName(), members);
+        dirty = true;
+    }
+
+    /**
+     * Only classes of the jdk and of mods are cached, since the fingerprint covers them. Script and class file classes are defined by other
+     * class loaders and may change between launches without changing the fingerprint, so they are never cached.
+     */
+    private static boolean isCacheable(Class<?> clazz) {
+        if (clazz.isSynthetic()) return false;
+        ClassLoader classLoader = clazz.getClassLoader();
+        return classLoader == null || classLoader == Launch.classLoader;
+    }
+
+    private static long getBlacklistHash() {
+        return GroovySecurityManager.INSTANCE.getBlacklistHash().asLong();
+    }
+
+    /**
+     * Hashes everything the members of a class depend on, except the blacklist which is checked for each class. Each mod is hashed with its
+     * version and the size and modification time of its file.
+     */
+    private static String computeFingerprint() {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putString(VMPlugin.getJavaVersion(), StandardCharsets.UTF_8);
+        hasher.putString(GroovyScript.VERSION, StandardCharsets.UTF_8);
+        hasher.putBoolean(FMLLaunchHandler.isDeobfuscatedEnvironment());
+        for (ModContainer mod : Loader.instance().getModList()) {
+            hasher.putString(mod.getModId(), StandardCharsets.UTF_8);
+            hasher.putString(mod.getVersion(), StandardCharsets.UTF_8);
+            File source = mod.getSource();
+            if (source != null) {
+                hasher.putLong(source.length()).putLong(source.lastModified());
+            }
+        }
+        return hasher.hash().toString();
+    }
+
+    private static void readMembers(DataInputStream in, Map<String, Members> cache) throws IOException {
+        int classCount = in.readInt();
+        for (int i = 0; i < classCount; i++) {
+            String className = in.readUTF();
+            Members members = new Members(in.readInt(), in.readLong());
+            int count = in.readInt();
+            for (int j = 0; j < count; j++) {
+                String key = in.readUTF();
+                String name = in.readUTF();
+                members.add(key, name.isEmpty() ? getMemberName(key) : name);
+            }
+            cache.putIfAbsent(className, members);
+        }
+    }
+
+    private static void writeMembers(DataOutputStream out, Map<String, Members> cache) throws IOException {
+        // classes might be added while saving
+        List<Map.Entry<String, Members>> entries = new ArrayList<>(cache.entrySet());
+        out.writeInt(entries.size());
+        for (Map.Entry<String, Members> entry : entries) {
+            Members members = entry.getValue();
+            out.writeUTF(entry.getKey());
+            out.writeInt(members.declaredCount);
+            out.writeLong(members.blacklistHash);
+            out.writeInt(members.names.size());
+            for (Map.Entry<String, String> member : members.names.entrySet()) {
+                out.writeUTF(member.getKey());
+                // most members are not remapped, so the name is only written if it differs
+                out.writeUTF(member.getValue().equals(getMemberName(member.getKey())) ? "" : member.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return the name of the member without the descriptor
+     */
+    private static String getMemberName(String key) {
+        int i = key.indexOf('(');
+        return i < 0 ? key : key.substring(0, i);
+    }
+
+    /**
+     * The visible members of a class and their names.
+     */
+    static class Members {
+
+        private final int declaredCount;
+        private final long blacklistHash;
+        private final Map<String, String> names = new Object2ObjectOpenHashMap<>();
+
+        Members(int declaredCount) {
+            this(declaredCount, getBlacklistHash());
+        }
+
+        private Members(int declaredCount, long blacklistHash) {
+            this.declaredCount = declaredCount;
+            this.blacklistHash = blacklistHash;
+        }
+
+        void add(String key, String name) {
+            this.names.put(key, name);
+        }
+
+        /**
+         * @return the name of the member or null if the member is not visible to scripts
+         */
+        @Nullable
+        String getName(String key) {
+            return this.names.get(key);
+        }
+    }
+}
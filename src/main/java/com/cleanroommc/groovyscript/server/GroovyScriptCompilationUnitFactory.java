@@ -10,6 +10,8 @@ import net.prominic.groovyls.compiler.control.GroovyLSCompilationUnit;
 import net.prominic.groovyls.config.CompilationUnitFactoryBase;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.SourceUnit;
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
 import org.jetbrains.annotations.Nullable;
 
 import java.io.File;
@@ -17,6 +19,7 @@ import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 public class GroovyScriptCompilationUnitFactory extends CompilationUnitFactoryBase {
@@ -24,6 +27,9 @@ public class GroovyScriptCompilationUnitFactory extends CompilationUnitFactoryBa
     private final File root;
     private final GroovyScriptLanguageServerContext languageServerContext;
     private final Map<URI, GroovyLSCompilationUnit> compilationUnitsByScript = new HashMap<>();
+    // the contents of the files in each unit when they were added
+    private final Map<URI, Map<URI, String>> sourcesByScript = new HashMap<>();
+    private List<Path> classFiles;
 
     public GroovyScriptCompilationUnitFactory(File root, GroovyScriptLanguageServerContext languageServerContext) {
         this.root = root;
@@ -48,6 +54,20 @@ public class GroovyScriptCompilationUnitFactory extends CompilationUnitFactoryBa
         return config;
     }
 
+    @Override
+    public void invalidateCompilationUnit() {
+        super.invalidateCompilationUnit();
+        this.classFiles = null;
+    }
+
+    @Override
+    public void didChangeWatchedFiles(List<FileEvent> changes) {
+        // changed files are handled by the file contents tracker, only created and deleted files change the class files
+        if (changes.stream().anyMatch(event -> event.getType() != FileChangeType.Changed)) {
+            this.classFiles = null;
+        }
+    }
+
     @Override
     public GroovyLSCompilationUnit create(Path workspaceRoot, @Nullable URI context) {
         if (context == null || isInClassesContext(context)) {
@@ -55,11 +75,14 @@ public class GroovyScriptCompilationUnitFactory extends CompilationUnitFactoryBa
         }
 
         var unit = compilationUnitsByScript.computeIfAbsent(context, uri -> new GroovyLSCompilationUnit(getConfiguration(), null, getClassLoader(), languageServerContext));
+        var sources = sourcesByScript.computeIfAbsent(context, uri -> new HashMap<>());
 
         var changedUris = languageServerContext.getFileContentsTracker().getChangedURIs();
 
         removeSources(unit, changedUris);
+        sources.keySet().removeAll(changedUris);
 
+        Set<URI> uris = new LinkedHashSet<>();
         // add open classes
         languageServerContext.getFileContentsTracker()
                 .getOpenURIs()
@@ -69,27 +92,48 @@ public class GroovyScriptCompilationUnitFactory extends CompilationUnitFactoryBa
                     return openPath.normalize().startsWith(workspaceRoot.normalize());
                 })
                 .filter(this::isInClassesContext)
-                .forEach(uri -> {
-                    addOpenFileToCompilationUnit(uri, languageServerContext.getFileContentsTracker().getContents(uri), unit);
-                });
+                .forEach(uris::add);
 
         // add all other classes too
         getAllClasses()
-                .filter(path -> !languageServerContext.getFileContentsTracker().isOpen(path.toUri()))
-                .forEach(path -> {
-                    addOpenFileToCompilationUnit(path.toUri(), languageServerContext.getFileContentsTracker().getContents(path.toUri()), unit);
-                });
+                .map(Path::toUri)
+                .filter(uri -> !languageServerContext.getFileContentsTracker().isOpen(uri))
+                .forEach(uris::add);
 
         if (context != null) {
-            var contents = languageServerContext.getFileContentsTracker().getContents(context);
-
             // we're in script context so only classes and the script itself
-            addOpenFileToCompilationUnit(context, contents, unit);
+            uris.add(context);
+        }
+
+        // sources of deleted files
+        Set<URI> removed = new HashSet<>(sources.keySet());
+        removed.removeAll(uris);
+        if (!removed.isEmpty()) {
+            removeSources(unit, removed);
+            sources.keySet().removeAll(removed);
+        }
+
+        for (URI uri : uris) {
+            addSource(unit, sources, uri);
         }
 
         return unit;
     }
 
+    /**
+     * Adds the file to the unit, unless the unit already contains the current contents of the file. Units are only compiled when they are
+     * used, so a unit might have missed changes which were already handled by another unit.
+     */
+    private void addSource(GroovyLSCompilationUnit unit, Map<URI, String> sources, URI uri) {
+        String contents = languageServerContext.getFileContentsTracker().getContents(uri);
+        String previous = sources.put(uri, contents);
+        if (previous != null) {
+            if (previous.equals(contents)) return;
+            removeSources(unit, Collections.singleton(uri));
+        }
+        addOpenFileToCompilationUnit(uri, contents, unit);
+    }
+
     protected boolean isInClassesContext(URI uri) {
         var file = Paths.get(uri).getParent();
 
@@ -97,12 +141,19 @@ public class GroovyScriptCompilationUnitFactory extends CompilationUnitFactoryBa
     }
 
     protected Stream<Path> getAllClasses() {
-        return LoadStage.getLoadStages()
-                .stream()
-                .map(LoadStage::getName)
-                .flatMap(loader -> GroovyScript.getRunConfig().getClassFiles(this.root, loader).stream())
-                .map(File::toPath)
-                .map(path -> GroovyScript.getScriptFile().toPath().resolve(path));
+        List<Path> classFiles = this.classFiles;
+        if (classFiles == null) {
+            classFiles = LoadStage.getLoadStages()
+                    .stream()
+                    .map(LoadStage::getName)
+                    .flatMap(loader -> GroovyScript.getRunConfig().getClassFiles(this.root, loader).stream())
+                    .map(File::toPath)
+                    .map(path -> GroovyScript.getScriptFile().toPath().resolve(path))
+                    .collect(Collectors.toList());
+            // without file events the class files can change at any time, so they are searched again
+            if (this.watchingFiles) this.classFiles = classFiles;
+        }
+        return classFiles.stream();
     }
 
     protected void removeSources(GroovyLSCompilationUnit unit, Set<URI> urisToRemove) {
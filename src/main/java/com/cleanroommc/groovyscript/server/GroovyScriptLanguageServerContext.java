@@ -2,31 +2,41 @@ package com.cleanroommc.groovyscript.server;
 
 import com.cleanroommc.groovyscript.GroovyScript;
 import com.cleanroommc.groovyscript.sandbox.GroovyScriptSandbox;
+import com.cleanroommc.groovyscript.sandbox.SandboxData;
 import com.cleanroommc.groovyscript.sandbox.security.GroovySecurityManager;
+import com.google.common.base.Suppliers;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
 import io.github.classgraph.ClassGraph;
 import io.github.classgraph.ScanResult;
 import net.minecraft.launchwrapper.Launch;
 import net.prominic.groovyls.compiler.ILanguageServerContext;
 import net.prominic.groovyls.compiler.documentation.DocumentationFactory;
 import net.prominic.groovyls.compiler.documentation.GroovydocProvider;
+import net.prominic.groovyls.util.ClassIndex;
 import net.prominic.groovyls.util.FileContentsTracker;
+import org.codehaus.groovy.vmplugin.VMPlugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 public class GroovyScriptLanguageServerContext implements ILanguageServerContext {
 
     private final FileContentsTracker fileContentsTracker = new FileContentsTracker();
 
-    private final ScanResult scanResult = new ClassGraph()
-            .enableClassInfo()
-            .enableMethodInfo()
-            .enableFieldInfo()
-            .enableSystemJarsAndModules()
-            .overrideClassLoaders(Launch.classLoader)
-            .acceptPaths("*")
-            .rejectClasses(GroovySecurityManager.INSTANCE.getBannedClasses().toArray(new String[0]))
-            .rejectPackages(GroovySecurityManager.INSTANCE.getBannedPackages().toArray(new String[0]))
-            .rejectPackages("scala.", "akka.")
-            .acceptClasses(GroovySecurityManager.INSTANCE.getWhiteListedClasses().toArray(new String[0]))
-            .scan();
+    public static final String CLASS_INDEX_FILE = "_ls_classes.bin";
+
+    // the full scan is only needed for member information, class and package names come from the class index
+    private final Supplier<ScanResult> scanResult = Suppliers.memoize(GroovyScriptLanguageServerContext::scan);
+    private final ClassIndex classIndex = loadClassIndex();
 
     private final DocumentationFactory documentationFactory = new DocumentationFactory(new GroovyScriptDocumentationProvider(), new GroovydocProvider());
 
@@ -35,7 +45,12 @@ public class GroovyScriptLanguageServerContext implements ILanguageServerContext
     }
 
     public ScanResult getScanResult() {
-        return this.scanResult;
+        return this.scanResult.get();
+    }
+
+    @Override
+    public ClassIndex getClassIndex() {
+        return this.classIndex;
     }
 
     @Override
@@ -47,4 +62,77 @@ public class GroovyScriptLanguageServerContext implements ILanguageServerContext
     public DocumentationFactory getDocumentationFactory() {
         return documentationFactory;
     }
+
+    private static ClassGraph createClassGraph() {
+        return new ClassGraph()
+                .enableSystemJarsAndModules()
+                .overrideClassLoaders(Launch.classLoader)
+                .acceptPaths("*")
+                .rejectClasses(GroovySecurityManager.INSTANCE.getBannedClasses().toArray(new String[0]))
+                .rejectPackages(GroovySecurityManager.INSTANCE.getBannedPackages().toArray(new String[0]))
+                .rejectPackages("scala.", "akka.")
+                .acceptClasses(GroovySecurityManager.INSTANCE.getWhiteListedClasses().toArray(new String[0]));
+    }
+
+    private static ScanResult scan() {
+        return createClassGraph()
+                .enableClassInfo()
+                .enableMethodInfo()
+                .enableFieldInfo()
+                .scan();
+    }
+
+    /**
+     * Loads the class index from the cache or builds it from a full scan if the class path changed.
+     */
+    private ClassIndex loadClassIndex() {
+        File file = new File(SandboxData.getCachePath(), CLASS_INDEX_FILE);
+        String fingerprint = computeClassPathFingerprint();
+        ClassIndex index = ClassIndex.read(file, fingerprint);
+        if (index != null) return index;
+        index = ClassIndex.of(getScanResult());
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            index.write(file, fingerprint);
+        } catch (IOException e) {
+            GroovyScript.LOGGER.error("Failed to write language server class index", e);
+        }
+        return index;
+    }
+
+    /**
+     * Hashes everything the scan depends on: the class path entries with their size and modification time, the java version and the
+     * classes which are hidden from scripts. Finding the class path entries doesn't scan any classes.
+     */
+    private static String computeClassPathFingerprint() {
+        Hasher hasher = Hashing.murmur3_128().newHasher();
+        hasher.putString(VMPlugin.getJavaVersion(), StandardCharsets.UTF_8);
+        hasher.putString(GroovyScript.VERSION, StandardCharsets.UTF_8);
+        for (File file : createClassGraph().getClasspathFiles()) {
+            hasher.putString(file.getAbsolutePath(), StandardCharsets.UTF_8);
+            if (file.isDirectory()) {
+                // the modification time of a directory doesn't change when files in sub directories change
+                try (Stream<Path> stream = Files.walk(file.toPath())) {
+                    stream.forEach(path -> hasher.putLong(path.toFile().lastModified()));
+                } catch (IOException e) {
+                    hasher.putLong(System.nanoTime());
+                }
+            } else {
+                hasher.putLong(file.length()).putLong(file.lastModified());
+            }
+        }
+        putSorted(hasher, GroovySecurityManager.INSTANCE.getBannedClasses());
+        putSorted(hasher, GroovySecurityManager.INSTANCE.getBannedPackages());
+        putSorted(hasher, GroovySecurityManager.INSTANCE.getWhiteListedClasses());
+        return hasher.hash().toString();
+    }
+
+    private static void putSorted(Hasher hasher, Iterable<String> values) {
+        List<String> list = new ArrayList<>();
+        values.forEach(list::add);
+        Collections.sort(list);
+        for (String value : list) {
+            hasher.putString(value, StandardCharsets.UTF_8);
+        }
+    }
 }
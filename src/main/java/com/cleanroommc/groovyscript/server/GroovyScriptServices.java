@@ -21,16 +21,18 @@ public class GroovyScriptServices extends GroovyServices implements GroovyScript
 
     @Override
     public CompletableFuture<List<TextureDecorationInformation>> textureDecoration(TextureDecorationParams params) {
-        URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+        return scheduler.request("textureDecoration", () -> {
+            URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
+            var unit = compilationUnitFactory.create(workspaceRoot, uri);
 
-        var visitor = compileAndVisitAST(unit, uri);
+            var visitor = compileAndVisitAST(unit, uri);
 
-        if (visitor == null) {
-            return CompletableFuture.completedFuture(null);
-        }
+            if (visitor == null) {
+                return CompletableFuture.completedFuture(null);
+            }
 
-        var provider = new TextureDecorationProvider(uri, new ASTContext(visitor, languageServerContext));
-        return provider.provideTextureDecorations();
+            var provider = new TextureDecorationProvider(uri, new ASTContext(visitor, languageServerContext));
+            return provider.provideTextureDecorations();
+        });
     }
 }
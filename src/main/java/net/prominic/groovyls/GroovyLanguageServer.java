@@ -35,6 +35,7 @@ import java.util.concurrent.CompletableFuture;
 public class GroovyLanguageServer<T extends GroovyServices> implements LanguageServer, LanguageClientAware {
 
     protected final T groovyServices;
+    private boolean canWatchFiles;
 
     public GroovyLanguageServer(ICompilationUnitFactory compilationUnitFactory, ILanguageServerContext languageServerContext) {
         this.groovyServices = createGroovyServices(compilationUnitFactory, languageServerContext);
@@ -53,10 +54,15 @@ public class GroovyLanguageServer<T extends GroovyServices> implements LanguageS
             groovyServices.setWorkspaceRoot(workspaceRoot);
         }
 
+        WorkspaceClientCapabilities workspaceCapabilities = params.getCapabilities() != null ? params.getCapabilities().getWorkspace() : null;
+        canWatchFiles = workspaceCapabilities != null &&
+                        workspaceCapabilities.getDidChangeWatchedFiles() != null &&
+                        Boolean.TRUE.equals(workspaceCapabilities.getDidChangeWatchedFiles().getDynamicRegistration());
+
         CompletionOptions completionOptions = new CompletionOptions(false, Arrays.asList(".", "'", "\""));
         ServerCapabilities serverCapabilities = new ServerCapabilities();
         serverCapabilities.setCompletionProvider(completionOptions);
-        serverCapabilities.setTextDocumentSync(TextDocumentSyncKind.Full);
+        serverCapabilities.setTextDocumentSync(TextDocumentSyncKind.Incremental);
         serverCapabilities.setDocumentSymbolProvider(true);
         serverCapabilities.setWorkspaceSymbolProvider(true);
         serverCapabilities.setDocumentSymbolProvider(true);
@@ -73,8 +79,16 @@ public class GroovyLanguageServer<T extends GroovyServices> implements LanguageS
         return CompletableFuture.completedFuture(initializeResult);
     }
 
+    @Override
+    public void initialized(InitializedParams params) {
+        if (canWatchFiles) {
+            groovyServices.watchFiles();
+        }
+    }
+
     @Override
     public CompletableFuture<Object> shutdown() {
+        groovyServices.shutdown();
         return CompletableFuture.completedFuture(new Object());
     }
 
@@ -24,6 +24,7 @@ import com.cleanroommc.groovyscript.sandbox.FileUtil;
 import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
+import net.prominic.groovyls.compiler.CompilationScheduler;
 import net.prominic.groovyls.compiler.ILanguageServerContext;
 import net.prominic.groovyls.compiler.ast.ASTContext;
 import net.prominic.groovyls.compiler.ast.ASTNodeVisitor;
@@ -31,7 +32,7 @@ import net.prominic.groovyls.compiler.control.GroovyLSCompilationUnit;
 import net.prominic.groovyls.config.ICompilationUnitFactory;
 import net.prominic.groovyls.providers.*;
 import net.prominic.groovyls.util.GroovyLSUtils;
-import net.prominic.groovyls.util.Positions;
+import net.prominic.groovyls.util.RequestMetrics;
 import org.codehaus.groovy.GroovyBugError;
 import org.codehaus.groovy.ast.ASTNode;
 import org.codehaus.groovy.control.ErrorCollector;
@@ -64,7 +65,9 @@ public class GroovyServices implements TextDocumentService, WorkspaceService, La
     protected Path workspaceRoot;
     protected final ICompilationUnitFactory compilationUnitFactory;
     protected final ILanguageServerContext languageServerContext;
-    private Map<URI, PublishDiagnosticsParams> prevDiagnosticsByFile;
+    protected final CompilationScheduler scheduler = new CompilationScheduler();
+    // the last published diagnostics of each file which has any
+    private final Map<URI, List<Diagnostic>> prevDiagnosticsByFile = new Object2ObjectOpenHashMap<>();
 
     public GroovyServices(ICompilationUnitFactory factory, ILanguageServerContext languageServerContext) {
         compilationUnitFactory = factory;
@@ -76,6 +79,17 @@ public class GroovyServices implements TextDocumentService, WorkspaceService, La
         compilationUnitFactory.invalidateCompilationUnit();
     }
 
+    public RequestMetrics getMetrics() {
+        return scheduler.getMetrics();
+    }
+
+    public void shutdown() {
+        scheduler.shutdown();
+        for (String line : scheduler.getMetrics().summarize()) {
+            GroovyScript.LOGGER.info("Language server {}", line);
+        }
+    }
+
     public boolean isInGroovyWorkspace(URI uri) {
         return FileUtil.relativizeNullable(workspaceRoot.toString(), uri.toString()) != null;
     }
@@ -85,36 +99,43 @@ public class GroovyServices implements TextDocumentService, WorkspaceService, La
         languageClient = client;
     }
 
+    /**
+     * Asks the client to report created, changed and deleted groovy files. Then the files of the workspace don't need to be searched
+     * again for each compilation.
+     */
+    public void watchFiles() {
+        FileSystemWatcher watcher = new FileSystemWatcher(Either.forLeft("**/*.groovy"));
+        DidChangeWatchedFilesRegistrationOptions options = new DidChangeWatchedFilesRegistrationOptions(Collections.singletonList(watcher));
+        Registration registration = new Registration("groovy-file-watcher", "workspace/didChangeWatchedFiles", options);
+        languageClient.registerCapability(new RegistrationParams(Collections.singletonList(registration)))
+                .thenRun(() -> compilationUnitFactory.setWatchingFiles(true));
+    }
+
     // --- NOTIFICATIONS
 
     @Override
     public void didOpen(DidOpenTextDocumentParams params) {
-        languageServerContext.getFileContentsTracker().didOpen(params);
         URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
-
-        compileAndVisitAST(unit, uri);
+        scheduler.execute("didOpen", () -> {
+            languageServerContext.getFileContentsTracker().didOpen(params);
+            compile(uri);
+        });
     }
 
     @Override
     public void didChange(DidChangeTextDocumentParams params) {
-        languageServerContext.getFileContentsTracker().didChange(params);
         URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
-
-        compileAndVisitAST(unit, uri);
+        scheduler.execute("didChange", () -> languageServerContext.getFileContentsTracker().didChange(params));
+        scheduler.scheduleCompile(uri, () -> compile(uri));
     }
 
     @Override
     public void didClose(DidCloseTextDocumentParams params) {
-        languageServerContext.getFileContentsTracker().didClose(params);
         URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
-
-        compileAndVisitAST(unit, uri);
+        scheduler.execute("didClose", () -> {
+            languageServerContext.getFileContentsTracker().didClose(params);
+            compile(uri);
+        });
     }
 
     @Override
@@ -124,17 +145,19 @@ public class GroovyServices implements TextDocumentService, WorkspaceService, La
 
     @Override
     public void didChangeWatchedFiles(DidChangeWatchedFilesParams params) {
-        Set<URI> urisWithChanges = params.getChanges()
-                .stream()
-                .map(fileEvent -> FileUtil.fixUri(fileEvent.getUri()))
-                .collect(
-                        Collectors.toSet());
-
-        for (URI uri : urisWithChanges) {
-            var unit = compilationUnitFactory.create(workspaceRoot, uri);
-
-            compileAndVisitAST(unit, uri);
-        }
+        scheduler.execute("didChangeWatchedFiles", () -> {
+            languageServerContext.getFileContentsTracker().didChangeWatchedFiles(params);
+            compilationUnitFactory.didChangeWatchedFiles(params.getChanges());
+            Set<URI> urisWithChanges = params.getChanges()
+                    .stream()
+                    .map(fileEvent -> FileUtil.fixUri(fileEvent.getUri()))
+                    .collect(
+                            Collectors.toSet());
+
+            for (URI uri : urisWithChanges) {
+                compile(uri);
+            }
+        });
     }
 
     @Override
@@ -142,7 +165,7 @@ public class GroovyServices implements TextDocumentService, WorkspaceService, La
         if (!(params.getSettings() instanceof JsonObject settings)) {
             return;
         }
-        this.updateClasspath(settings);
+        scheduler.execute("didChangeConfiguration", () -> this.updateClasspath(settings));
     }
 
     private void updateClasspath(JsonObject settings) {
@@ -167,186 +190,219 @@ public class GroovyServices implements TextDocumentService, WorkspaceService, La
 
     @Override
     public CompletableFuture<Hover> hover(HoverParams params) {
-        URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+        return scheduler.request("hover", () -> {
+            URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
+            var unit = compilationUnitFactory.create(workspaceRoot, uri);
 
-        var visitor = compileAndVisitAST(unit, uri);
+            var visitor = compileAndVisitAST(unit, uri);
 
-        if (visitor == null) {
-            return CompletableFuture.completedFuture(null);
-        }
+            if (visitor == null) {
+                return CompletableFuture.completedFuture(null);
+            }
 
-        HoverProvider provider = new HoverProvider(uri, new ASTContext(visitor, languageServerContext));
-        return provider.provideHover(params.getTextDocument(), params.getPosition());
+            HoverProvider provider = new HoverProvider(uri, new ASTContext(visitor, languageServerContext));
+            return provider.provideHover(params.getTextDocument(), params.getPosition());
+        });
     }
 
     @Override
     public CompletableFuture<Either<List<CompletionItem>, CompletionList>> completion(CompletionParams params) {
-        TextDocumentIdentifier textDocument = params.getTextDocument();
-        Position position = params.getPosition();
-        URI uri = FileUtil.fixUri(textDocument.getUri());
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+        return scheduler.request("completion", () -> {
+            TextDocumentIdentifier textDocument = params.getTextDocument();
+            Position position = params.getPosition();
+            URI uri = FileUtil.fixUri(textDocument.getUri());
+            var unit = compilationUnitFactory.create(workspaceRoot, uri);
 
-        var visitor = compileAndVisitAST(unit, uri);
-        if (visitor == null) return CompletableFuture.completedFuture(Either.forLeft(Collections.emptyList()));
-
-        String originalSource = null;
-        ASTNode offsetNode = visitor.getNodeAtLineAndColumn(uri, position.getLine(), position.getCharacter());
-        if (offsetNode == null) {
-            originalSource = languageServerContext.getFileContentsTracker().getContents(uri);
-            VersionedTextDocumentIdentifier versionedTextDocument = new VersionedTextDocumentIdentifier(textDocument.getUri(), 1);
-            int offset = Positions.getOffset(originalSource, position);
-            String lineBeforeOffset = originalSource.substring(offset - position.getCharacter(), offset);
-            Matcher matcher = PATTERN_CONSTRUCTOR_CALL.matcher(lineBeforeOffset);
-            TextDocumentContentChangeEvent changeEvent = null;
-            if (matcher.matches()) {
-                changeEvent = new TextDocumentContentChangeEvent(new Range(position, position), "a()");
-            } else {
-                changeEvent = new TextDocumentContentChangeEvent(new Range(position, position), "a");
-            }
-            DidChangeTextDocumentParams didChangeParams = new DidChangeTextDocumentParams(
-                    versionedTextDocument,
-                    Collections.singletonList(changeEvent));
-            // if the offset node is null, there is probably a syntax error.
-            // a completion request is usually triggered by the . character, and
-            // if there is no property name after the dot, it will cause a syntax
-            // error.
-            // this hack adds a placeholder property name in the hopes that it
-            // will correctly create a PropertyExpression to use for completion.
-            // we'll restore the original text after we're done handling the
-            // completion request.
-            didChange(didChangeParams);
-        }
+            var visitor = compileAndVisitAST(unit, uri);
+            if (visitor == null) return CompletableFuture.completedFuture(Either.forLeft(Collections.emptyList()));
 
-        CompletableFuture<Either<List<CompletionItem>, CompletionList>> result = null;
-        try {
-            CompletionProvider provider = new CompletionProvider(uri, new ASTContext(visitor, languageServerContext));
-            result = provider.provideCompletionFuture(params.getTextDocument(), params.getPosition(), params.getContext());
-        } finally {
-            if (originalSource != null) {
+            String originalSource = null;
+            ASTNode offsetNode = visitor.getNodeAtLineAndColumn(uri, position.getLine(), position.getCharacter());
+            if (offsetNode == null) {
+                originalSource = languageServerContext.getFileContentsTracker().getContents(uri);
                 VersionedTextDocumentIdentifier versionedTextDocument = new VersionedTextDocumentIdentifier(textDocument.getUri(), 1);
-                TextDocumentContentChangeEvent changeEvent = new TextDocumentContentChangeEvent(null, originalSource);
+                int offset = languageServerContext.getFileContentsTracker().getOffset(uri, position);
+                int lineStart = languageServerContext.getFileContentsTracker().getOffset(uri, new Position(position.getLine(), 0));
+                String lineBeforeOffset = originalSource.substring(lineStart, offset);
+                Matcher matcher = PATTERN_CONSTRUCTOR_CALL.matcher(lineBeforeOffset);
+                TextDocumentContentChangeEvent changeEvent = null;
+                if (matcher.matches()) {
+                    changeEvent = new TextDocumentContentChangeEvent(new Range(position, position), "a()");
+                } else {
+                    changeEvent = new TextDocumentContentChangeEvent(new Range(position, position), "a");
+                }
                 DidChangeTextDocumentParams didChangeParams = new DidChangeTextDocumentParams(
                         versionedTextDocument,
                         Collections.singletonList(changeEvent));
-                didChange(didChangeParams);
+                // if the offset node is null, there is probably a syntax error.
+                // a completion request is usually triggered by the . character, and
+                // if there is no property name after the dot, it will cause a syntax
+                // error.
+                // this hack adds a placeholder property name in the hopes that it
+                // will correctly create a PropertyExpression to use for completion.
+                // we'll restore the original text after we're done handling the
+                // completion request.
+                applyChange(didChangeParams);
             }
-        }
 
-        return result;
+            CompletableFuture<Either<List<CompletionItem>, CompletionList>> result = null;
+            try {
+                CompletionProvider provider = new CompletionProvider(uri, new ASTContext(visitor, languageServerContext));
+                result = provider.provideCompletionFuture(params.getTextDocument(), params.getPosition(), params.getContext());
+            } finally {
+                if (originalSource != null) {
+                    VersionedTextDocumentIdentifier versionedTextDocument = new VersionedTextDocumentIdentifier(textDocument.getUri(), 1);
+                    TextDocumentContentChangeEvent changeEvent = new TextDocumentContentChangeEvent(null, originalSource);
+                    DidChangeTextDocumentParams didChangeParams = new DidChangeTextDocumentParams(
+                            versionedTextDocument,
+                            Collections.singletonList(changeEvent));
+                    applyChange(didChangeParams);
+                }
+            }
+
+            return result;
+        });
     }
 
     @Override
     public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> definition(DefinitionParams params) {
-        URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+        return scheduler.request("definition", () -> {
+            URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
+            var unit = compilationUnitFactory.create(workspaceRoot, uri);
 
-        var visitor = compileAndVisitAST(unit, uri);
+            var visitor = compileAndVisitAST(unit, uri);
 
-        DefinitionProvider provider = new DefinitionProvider(uri, new ASTContext(visitor, languageServerContext));
-        return provider.provideDefinition(params.getTextDocument(), params.getPosition());
+            DefinitionProvider provider = new DefinitionProvider(uri, new ASTContext(visitor, languageServerContext));
+            return provider.provideDefinition(params.getTextDocument(), params.getPosition());
+        });
     }
 
     @Override
     public CompletableFuture<SignatureHelp> signatureHelp(SignatureHelpParams params) {
-        TextDocumentIdentifier textDocument = params.getTextDocument();
-        Position position = params.getPosition();
-        URI uri = FileUtil.fixUri(textDocument.getUri());
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+        return scheduler.request("signatureHelp", () -> {
+            TextDocumentIdentifier textDocument = params.getTextDocument();
+            Position position = params.getPosition();
+            URI uri = FileUtil.fixUri(textDocument.getUri());
+            var unit = compilationUnitFactory.create(workspaceRoot, uri);
 
-        var visitor = compileAndVisitAST(unit, uri);
-
-        String originalSource = null;
-        ASTNode offsetNode = visitor.getNodeAtLineAndColumn(uri, position.getLine(), position.getCharacter());
-        if (offsetNode == null) {
-            originalSource = languageServerContext.getFileContentsTracker().getContents(uri);
-            VersionedTextDocumentIdentifier versionedTextDocument = new VersionedTextDocumentIdentifier(textDocument.getUri(), 1);
-            TextDocumentContentChangeEvent changeEvent = new TextDocumentContentChangeEvent(new Range(position, position), ")");
-            DidChangeTextDocumentParams didChangeParams = new DidChangeTextDocumentParams(
-                    versionedTextDocument,
-                    Collections.singletonList(changeEvent));
-            // if the offset node is null, there is probably a syntax error.
-            // a signature help request is usually triggered by the ( character,
-            // and if there is no matching ), it will cause a syntax error.
-            // this hack adds a placeholder ) character in the hopes that it
-            // will correctly create a ArgumentListExpression to use for
-            // signature help.
-            // we'll restore the original text after we're done handling the
-            // signature help request.
-            didChange(didChangeParams);
-        }
+            var visitor = compileAndVisitAST(unit, uri);
 
-        try {
-            SignatureHelpProvider provider = new SignatureHelpProvider(uri, new ASTContext(visitor, languageServerContext));
-            return provider.provideSignatureHelp(params.getTextDocument(), params.getPosition());
-        } finally {
-            if (originalSource != null) {
+            String originalSource = null;
+            ASTNode offsetNode = visitor.getNodeAtLineAndColumn(uri, position.getLine(), position.getCharacter());
+            if (offsetNode == null) {
+                originalSource = languageServerContext.getFileContentsTracker().getContents(uri);
                 VersionedTextDocumentIdentifier versionedTextDocument = new VersionedTextDocumentIdentifier(textDocument.getUri(), 1);
-                TextDocumentContentChangeEvent changeEvent = new TextDocumentContentChangeEvent(null, originalSource);
+                TextDocumentContentChangeEvent changeEvent = new TextDocumentContentChangeEvent(new Range(position, position), ")");
                 DidChangeTextDocumentParams didChangeParams = new DidChangeTextDocumentParams(
                         versionedTextDocument,
                         Collections.singletonList(changeEvent));
-                didChange(didChangeParams);
+                // if the offset node is null, there is probably a syntax error.
+                // a signature help request is usually triggered by the ( character,
+                // and if there is no matching ), it will cause a syntax error.
+                // this hack adds a placeholder ) character in the hopes that it
+                // will correctly create a ArgumentListExpression to use for
+                // signature help.
+                // we'll restore the original text after we're done handling the
+                // signature help request.
+                applyChange(didChangeParams);
             }
-        }
+
+            try {
+                SignatureHelpProvider provider = new SignatureHelpProvider(uri, new ASTContext(visitor, languageServerContext));
+                return provider.provideSignatureHelp(params.getTextDocument(), params.getPosition());
+            } finally {
+                if (originalSource != null) {
+                    VersionedTextDocumentIdentifier versionedTextDocument = new VersionedTextDocumentIdentifier(textDocument.getUri(), 1);
+                    TextDocumentContentChangeEvent changeEvent = new TextDocumentContentChangeEvent(null, originalSource);
+                    DidChangeTextDocumentParams didChangeParams = new DidChangeTextDocumentParams(
+                            versionedTextDocument,
+                            Collections.singletonList(changeEvent));
+                    applyChange(didChangeParams);
+                }
+            }
+        });
     }
 
     @Override
     public CompletableFuture<Either<List<? extends Location>, List<? extends LocationLink>>> typeDefinition(TypeDefinitionParams params) {
-        URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+        return scheduler.request("typeDefinition", () -> {
+            URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
+            var unit = compilationUnitFactory.create(workspaceRoot, uri);
 
-        var visitor = compileAndVisitAST(unit, uri);
+            var visitor = compileAndVisitAST(unit, uri);
 
-        TypeDefinitionProvider provider = new TypeDefinitionProvider(uri, new ASTContext(visitor, languageServerContext));
-        return provider.provideTypeDefinition(params.getTextDocument(), params.getPosition());
+            TypeDefinitionProvider provider = new TypeDefinitionProvider(uri, new ASTContext(visitor, languageServerContext));
+            return provider.provideTypeDefinition(params.getTextDocument(), params.getPosition());
+        });
     }
 
     @Override
     public CompletableFuture<List<? extends Location>> references(ReferenceParams params) {
-        URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+        return scheduler.request("references", () -> {
+            URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
+            var unit = compilationUnitFactory.create(workspaceRoot, uri);
 
-        var visitor = compileAndVisitAST(unit, uri);
+            var visitor = compileAndVisitAST(unit, uri);
 
-        ReferenceProvider provider = new ReferenceProvider(uri, new ASTContext(visitor, languageServerContext));
-        return provider.provideReferences(params.getTextDocument(), params.getPosition());
+            ReferenceProvider provider = new ReferenceProvider(uri, new ASTContext(visitor, languageServerContext));
+            return provider.provideReferences(params.getTextDocument(), params.getPosition());
+        });
     }
 
     @Override
     public CompletableFuture<List<Either<SymbolInformation, DocumentSymbol>>> documentSymbol(DocumentSymbolParams params) {
-        URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+        return scheduler.request("documentSymbol", () -> {
+            URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
+            var unit = compilationUnitFactory.create(workspaceRoot, uri);
 
-        var visitor = compileAndVisitAST(unit, uri);
+            var visitor = compileAndVisitAST(unit, uri);
 
-        DocumentSymbolProvider provider = new DocumentSymbolProvider(uri, new ASTContext(visitor, languageServerContext));
-        return provider.provideDocumentSymbolsFuture(params.getTextDocument());
+            DocumentSymbolProvider provider = new DocumentSymbolProvider(uri, new ASTContext(visitor, languageServerContext));
+            return provider.provideDocumentSymbolsFuture(params.getTextDocument());
+        });
     }
 
     @Override
     public CompletableFuture<Either<List<? extends SymbolInformation>, List<? extends WorkspaceSymbol>>> symbol(
                                                                                                                 WorkspaceSymbolParams params) {
-        var unit = compilationUnitFactory.create(workspaceRoot, null);
+        return scheduler.request("symbol", () -> {
+            var unit = compilationUnitFactory.create(workspaceRoot, null);
 
-        var visitor = compileAndVisitAST(unit, null);
+            var visitor = compileAndVisitAST(unit, null);
 
-        WorkspaceSymbolProvider provider = new WorkspaceSymbolProvider(new ASTContext(visitor, languageServerContext));
-        return provider.provideWorkspaceSymbols(params.getQuery()).thenApply(Either::forRight);
+            WorkspaceSymbolProvider provider = new WorkspaceSymbolProvider(new ASTContext(visitor, languageServerContext));
+            return provider.provideWorkspaceSymbols(params.getQuery()).thenApply(Either::forRight);
+        });
     }
 
     @Override
     public CompletableFuture<WorkspaceEdit> rename(RenameParams params) {
-        URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+        return scheduler.request("rename", () -> {
+            URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
+            var unit = compilationUnitFactory.create(workspaceRoot, uri);
 
-        var visitor = compileAndVisitAST(unit, uri);
+            var visitor = compileAndVisitAST(unit, uri);
 
-        RenameProvider provider = new RenameProvider(
-                uri,
-                new ASTContext(visitor, languageServerContext),
-                languageServerContext.getFileContentsTracker());
-        return provider.provideRename(params);
+            RenameProvider provider = new RenameProvider(
+                    uri,
+                    new ASTContext(visitor, languageServerContext),
+                    languageServerContext.getFileContentsTracker());
+            return provider.provideRename(params);
+        });
+    }
+
+    /**
+     * Changes a document and compiles it immediately. Must only be called on the worker thread.
+     */
+    private void applyChange(DidChangeTextDocumentParams params) {
+        languageServerContext.getFileContentsTracker().didChange(params);
+        compile(FileUtil.fixUri(params.getTextDocument().getUri()));
+    }
+
+    private void compile(URI uri) {
+        var unit = compilationUnitFactory.create(workspaceRoot, uri);
+
+        compileAndVisitAST(unit, uri);
     }
 
     protected @Nullable ASTNodeVisitor compileAndVisitAST(GroovyLSCompilationUnit compilationUnit, URI context) {
@@ -358,7 +414,7 @@ public class GroovyServices implements TextDocumentService, WorkspaceService, La
         } catch (GroovyBugError | Exception e) {
             GroovyScript.LOGGER.error("Unexpected exception in language server when compiling Groovy.", e);
         } finally {
-            for (PublishDiagnosticsParams diag : handleErrorCollector(compilationUnit.getErrorCollector())) {
+            for (PublishDiagnosticsParams diag : handleErrorCollector(compilationUnit.getErrorCollector(), compilationUnit.getCompiledSources())) {
                 languageClient.publishDiagnostics(diag);
             }
         }
@@ -366,8 +422,12 @@ public class GroovyServices implements TextDocumentService, WorkspaceService, La
         return null;
     }
 
-    private Iterable<PublishDiagnosticsParams> handleErrorCollector(ErrorCollector collector) {
-        Map<URI, PublishDiagnosticsParams> diagnosticsByFile = new Object2ObjectOpenHashMap<>();
+    /**
+     * Collects the diagnostics of each file and returns the files whose diagnostics changed since they were last published. Files which
+     * were not compiled keep their diagnostics, since another compilation unit might have published them.
+     */
+    private Iterable<PublishDiagnosticsParams> handleErrorCollector(ErrorCollector collector, Set<URI> compiledFiles) {
+        Map<URI, List<Diagnostic>> diagnosticsByFile = new Object2ObjectOpenHashMap<>();
 
         List<? extends Message> errors = collector.getErrors();
         if (errors != null) {
@@ -381,28 +441,28 @@ public class GroovyServices implements TextDocumentService, WorkspaceService, La
                     diagnostic.setMessage(cause.getOriginalMessage());
                     diagnostic.setSeverity(DiagnosticSeverity.Error); // TODO source location
                     URI uri = Paths.get(cause.getSourceLocator()).toUri();
-                    diagnosticsByFile.computeIfAbsent(
-                            uri,
-                            (key) -> new PublishDiagnosticsParams(
-                                    key.toString(),
-                                    new ArrayList<>()))
-                            .getDiagnostics()
-                            .add(
-                                    diagnostic);
+                    diagnosticsByFile.computeIfAbsent(uri, key -> new ArrayList<>()).add(diagnostic);
                 }
             }
         }
 
-        if (prevDiagnosticsByFile != null) {
-            for (URI key : prevDiagnosticsByFile.keySet()) {
-                if (!diagnosticsByFile.containsKey(key)) {
-                    // send an empty list of diagnostics for files that had
-                    // diagnostics previously or they won't be cleared
-                    diagnosticsByFile.put(key, new PublishDiagnosticsParams(key.toString(), Collections.emptyList()));
-                }
+        for (URI uri : compiledFiles) {
+            // send an empty list of diagnostics for files that had
+            // diagnostics previously or they won't be cleared
+            // same as the uri of the errors
+            diagnosticsByFile.putIfAbsent(Paths.get(uri).toUri(), Collections.emptyList());
+        }
+
+        List<PublishDiagnosticsParams> changed = new ArrayList<>();
+        for (Map.Entry<URI, List<Diagnostic>> entry : diagnosticsByFile.entrySet()) {
+            List<Diagnostic> diagnostics = entry.getValue();
+            List<Diagnostic> previous = diagnostics.isEmpty()
+                                        ? prevDiagnosticsByFile.remove(entry.getKey())
+                                        : prevDiagnosticsByFile.put(entry.getKey(), diagnostics);
+            if (previous == null ? !diagnostics.isEmpty() : !previous.equals(diagnostics)) {
+                changed.add(new PublishDiagnosticsParams(entry.getKey().toString(), diagnostics));
             }
         }
-        prevDiagnosticsByFile = diagnosticsByFile;
-        return diagnosticsByFile.values();
+        return changed;
     }
 }
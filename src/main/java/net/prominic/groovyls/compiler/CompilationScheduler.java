@@ -0,0 +1,113 @@
+package net.prominic.groovyls.compiler;
+
+import com.cleanroommc.groovyscript.GroovyScript;
+import net.prominic.groovyls.util.RequestMetrics;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+/**
+ * Runs all work of the language server on a single background thread, so the files and compilation units are never accessed
+ * concurrently. Document changes and requests run in the order they were received, so requests always see the latest text.
+ * <p>
+ * Compiling after an edit is delayed. Edits which arrive during the delay replace the pending compilation, so fast typing only compiles
+ * once. Requests compile themselves if their file changed, so they never wait for the delay.
+ */
+public class CompilationScheduler {
+
+    public static final long DEBOUNCE_MS = 150;
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "Groovy Language Server Worker");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<URI, ScheduledFuture<?>> pendingCompiles = new ConcurrentHashMap<>();
+    private final RequestMetrics metrics = new RequestMetrics();
+
+    public RequestMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Runs a document change or another notification on the worker thread.
+     */
+    public void execute(String type, Runnable action) {
+        long submitted = System.nanoTime();
+        this.executor.execute(() -> {
+            long start = System.nanoTime();
+            try {
+                action.run();
+            } catch (Exception e) {
+                GroovyScript.LOGGER.error("Unexpected exception in language server while handling {}", type, e);
+            }
+            this.metrics.record(type, start - submitted, System.nanoTime() - start);
+        });
+    }
+
+    /**
+     * Compiles the file after a delay. A compilation of the same file which hasn't started yet is cancelled.
+     */
+    public void scheduleCompile(URI uri, Runnable compile) {
+        long submitted = System.nanoTime();
+        ScheduledFuture<?>[] self = new ScheduledFuture<?>[1];
+        synchronized (this.pendingCompiles) {
+            self[0] = this.executor.schedule(() -> {
+                synchronized (this.pendingCompiles) {
+                    // only remove this compilation, a newer one might already be scheduled
+                    this.pendingCompiles.remove(uri, self[0]);
+                }
+                long start = System.nanoTime();
+                try {
+                    compile.run();
+                } catch (Exception e) {
+                    GroovyScript.LOGGER.error("Unexpected exception in language server when compiling Groovy.", e);
+                }
+                this.metrics.record("compile", start - submitted - TimeUnit.MILLISECONDS.toNanos(DEBOUNCE_MS), System.nanoTime() - start);
+            }, DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+            ScheduledFuture<?> previous = this.pendingCompiles.put(uri, self[0]);
+            if (previous != null && previous.cancel(false)) {
+                this.metrics.recordCancelled("compile");
+            }
+        }
+    }
+
+    /**
+     * Runs a request on the worker thread. If the client cancels the request before it started, it's skipped.
+     *
+     * @param type    the request type for the metrics
+     * @param request the request
+     * @return a future with the result of the request
+     */
+    public <T> CompletableFuture<T> request(String type, Supplier<CompletableFuture<T>> request) {
+        long submitted = System.nanoTime();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        this.executor.execute(() -> {
+            if (result.isCancelled()) {
+                this.metrics.recordCancelled(type);
+                return;
+            }
+            long start = System.nanoTime();
+            try {
+                request.get().whenComplete((value, throwable) -> {
+                    this.metrics.record(type, start - submitted, System.nanoTime() - start);
+                    if (throwable != null) {
+                        result.completeExceptionally(throwable);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            } catch (Exception e) {
+                this.metrics.record(type, start - submitted, System.nanoTime() - start);
+                result.completeExceptionally(e);
+            }
+        });
+        return result;
+    }
+
+    public void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
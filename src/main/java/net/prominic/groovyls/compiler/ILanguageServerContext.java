@@ -3,6 +3,7 @@ package net.prominic.groovyls.compiler;
 import com.cleanroommc.groovyscript.sandbox.GroovySandbox;
 import io.github.classgraph.ScanResult;
 import net.prominic.groovyls.compiler.documentation.DocumentationFactory;
+import net.prominic.groovyls.util.ClassIndex;
 import net.prominic.groovyls.util.FileContentsTracker;
 
 public interface ILanguageServerContext {
@@ -11,6 +12,11 @@ public interface ILanguageServerContext {
 
     ScanResult getScanResult();
 
+    /**
+     * @return an index of all class and package names on the class path
+     */
+    ClassIndex getClassIndex();
+
     FileContentsTracker getFileContentsTracker();
 
     DocumentationFactory getDocumentationFactory();
@@ -23,21 +23,15 @@ import com.cleanroommc.groovyscript.helper.BetterList;
 import it.unimi.dsi.fastutil.Hash;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenCustomHashMap;
 import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
-import net.prominic.groovyls.util.GroovyLSUtils;
-import net.prominic.groovyls.util.Positions;
-import net.prominic.groovyls.util.Ranges;
 import org.codehaus.groovy.ast.*;
 import org.codehaus.groovy.ast.expr.*;
 import org.codehaus.groovy.ast.stmt.*;
 import org.codehaus.groovy.classgen.BytecodeExpression;
 import org.codehaus.groovy.control.CompilationUnit;
 import org.codehaus.groovy.control.SourceUnit;
-import org.eclipse.lsp4j.Position;
-import org.eclipse.lsp4j.Range;
 
 import java.net.URI;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class ASTNodeVisitor extends ClassCodeVisitorSupport {
 
@@ -63,6 +57,7 @@ public class ASTNodeVisitor extends ClassCodeVisitorSupport {
     private final Map<URI, ModuleNode> modules = new Object2ObjectOpenHashMap<>();
     private final Map<URI, List<ASTNode>> nodesByURI = new Object2ObjectOpenHashMap<>();
     private final Map<URI, List<ClassNode>> classNodesByURI = new Object2ObjectOpenHashMap<>();
+    private final Map<URI, NodePositionIndex> positionIndexes = new Object2ObjectOpenHashMap<>();
     private final Map<ASTNode, ASTNodeLookupData> lookup = new Object2ObjectOpenCustomHashMap<>(new Hash.Strategy<>() {
 
         @Override
@@ -116,56 +111,17 @@ public class ASTNodeVisitor extends ClassCodeVisitorSupport {
     }
 
     public ASTNode getNodeAtLineAndColumn(URI uri, int line, int column) {
-        Position position = new Position(line, column);
-        Map<ASTNode, Range> nodeToRange = new HashMap<>();
-        List<ASTNode> nodes = nodesByURI.get(uri);
-        if (nodes == null) {
-            return null;
-        }
-        List<ASTNode> foundNodes = nodes.stream().filter(node -> {
-            if (node.getLineNumber() == -1) {
-                // can't be the offset node if it has no position
-                // also, do this first because it's the fastest comparison
-                return false;
-            }
-            Range range = GroovyLSUtils.astNodeToRange(node);
-            if (range == null) {
-                return false;
-            }
-            boolean result = Ranges.contains(range, position);
-            if (result) {
-                // save the range object to avoid creating it again when we
-                // sort the nodes
-                nodeToRange.put(node, range);
+        NodePositionIndex index = positionIndexes.get(uri);
+        if (index == null) {
+            List<ASTNode> nodes = nodesByURI.get(uri);
+            if (nodes == null) {
+                return null;
             }
-            return result;
-        }).sorted((n1, n2) -> {
-            int result = Positions.COMPARATOR.reversed().compare(nodeToRange.get(n1).getStart(), nodeToRange.get(n2).getStart());
-            if (result != 0) {
-                return result;
-            }
-            result = Positions.COMPARATOR.compare(nodeToRange.get(n1).getEnd(), nodeToRange.get(n2).getEnd());
-            if (result != 0) {
-                return result;
-            }
-            // n1 and n2 have the same range
-            if (contains(n1, n2)) {
-                if (n1 instanceof ClassNode && n2 instanceof ConstructorNode) {
-                    return -1;
-                }
-                return 1;
-            } else if (contains(n2, n1)) {
-                if (n2 instanceof ClassNode && n1 instanceof ConstructorNode) {
-                    return 1;
-                }
-                return -1;
-            }
-            return 0;
-        }).collect(Collectors.toList());
-        if (foundNodes.isEmpty()) {
-            return null;
+            // built on the first lookup after the file was visited
+            index = new NodePositionIndex(nodes);
+            positionIndexes.put(uri, index);
         }
-        return foundNodes.get(0);
+        return index.find(line, column, this::contains);
     }
 
     public ASTNode getParent(ASTNode child) {
@@ -207,8 +163,10 @@ public class ASTNodeVisitor extends ClassCodeVisitorSupport {
     }
 
     public void visitCompilationUnit(CompilationUnit unit) {
+        modules.clear();
         nodesByURI.clear();
         classNodesByURI.clear();
+        positionIndexes.clear();
         lookup.clear();
         unit.iterator().forEachRemaining(this::visitSourceUnit);
     }
@@ -221,6 +179,8 @@ public class ASTNodeVisitor extends ClassCodeVisitorSupport {
                 nodes.forEach(lookup::remove);
             }
             classNodesByURI.remove(uri);
+            positionIndexes.remove(uri);
+            modules.remove(uri);
         });
         unit.iterator().forEachRemaining(sourceUnit -> {
             URI uri = sourceUnit.getSource().getURI();
@@ -236,6 +196,7 @@ public class ASTNodeVisitor extends ClassCodeVisitorSupport {
         URI uri = sourceUnit.getSource().getURI();
         nodesByURI.put(uri, new ArrayList<>());
         classNodesByURI.put(uri, new ArrayList<>());
+        positionIndexes.remove(uri);
         stack.clear();
         ModuleNode moduleNode = unit.getAST();
         if (moduleNode != null) {
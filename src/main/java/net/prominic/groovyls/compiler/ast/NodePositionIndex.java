@@ -0,0 +1,128 @@
+package net.prominic.groovyls.compiler.ast;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.codehaus.groovy.ast.ASTNode;
+import org.codehaus.groovy.ast.ClassNode;
+import org.codehaus.groovy.ast.ConstructorNode;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Finds the innermost node at a position of a file without looking at every node.
+ * <p>
+ * Nodes are sorted by start position and for equal starts by end position descending. The innermost node containing a position is the
+ * last node in that order which starts before the position and ends after it. A segment tree over the end positions finds that node in
+ * O(log n). Nodes with the same range are ordered like they were visited, so a child comes after its parent.
+ */
+class NodePositionIndex {
+
+    private final ASTNode[] nodes;
+    private final long[] starts;
+    private final long[] ends;
+    // max end of each segment, leaves start at index size
+    private final long[] maxEnds;
+    private final int size;
+
+    NodePositionIndex(List<ASTNode> allNodes) {
+        int count = 0;
+        long[] starts = new long[allNodes.size()];
+        long[] ends = new long[allNodes.size()];
+        int[] order = new int[allNodes.size()];
+        for (int i = 0; i < allNodes.size(); i++) {
+            ASTNode node = allNodes.get(i);
+            // can't be the offset node if it has no position
+            if (node.getLineNumber() < 0) continue;
+            starts[i] = pack(node.getLineNumber(), node.getColumnNumber());
+            // same as GroovyLSUtils.rangeOf, a node without end ends at its start
+            ends[i] = node.getLastLineNumber() < 0 ? starts[i] : pack(node.getLastLineNumber(), node.getLastColumnNumber());
+            order[count++] = i;
+        }
+        IntArrays.stableSort(order, 0, count, (a, b) -> {
+            int c = Long.compare(starts[a], starts[b]);
+            return c != 0 ? c : Long.compare(ends[b], ends[a]);
+        });
+        this.nodes = new ASTNode[count];
+        this.starts = new long[count];
+        this.ends = new long[count];
+        for (int i = 0; i < count; i++) {
+            this.nodes[i] = allNodes.get(order[i]);
+            this.starts[i] = starts[order[i]];
+            this.ends[i] = ends[order[i]];
+        }
+        int size = 1;
+        while (size < count) size <<= 1;
+        this.size = size;
+        this.maxEnds = new long[2 * size];
+        Arrays.fill(this.maxEnds, Long.MIN_VALUE);
+        System.arraycopy(this.ends, 0, this.maxEnds, size, count);
+        for (int i = size - 1; i > 0; i--) {
+            this.maxEnds[i] = Math.max(this.maxEnds[2 * i], this.maxEnds[2 * i + 1]);
+        }
+    }
+
+    /**
+     * Finds the innermost node which contains the position.
+     *
+     * @param line     zero based line
+     * @param column   zero based column
+     * @param contains tests if the first node is an ancestor of the second node
+     * @return the innermost node or null if no node contains the position
+     */
+    ASTNode find(int line, int column, BiPredicate<ASTNode, ASTNode> contains) {
+        long position = ((long) line << 32) | column;
+        // the last node which starts at or before the position
+        int last = upperBound(position) - 1;
+        if (last < 0) return null;
+        int index = findLast(1, 0, this.size - 1, last, position);
+        if (index < 0) return null;
+        // nodes with the same range are next to each other
+        // prefer the innermost node, except a class over its constructor, and otherwise the node which was visited first
+        ASTNode best = this.nodes[index];
+        for (int i = index - 1; i >= 0 && this.starts[i] == this.starts[index] && this.ends[i] == this.ends[index]; i--) {
+            ASTNode node = this.nodes[i];
+            if (contains.test(node, best)) {
+                if (node instanceof ClassNode && best instanceof ConstructorNode) best = node;
+            } else if (!contains.test(best, node)) {
+                best = node;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the last leaf at or before {@code last} whose end is at or after the position.
+     */
+    private int findLast(int segment, int from, int to, int last, long position) {
+        if (from > last || this.maxEnds[segment] < position) return -1;
+        if (from == to) return from;
+        int mid = (from + to) >>> 1;
+        int result = findLast(2 * segment + 1, mid + 1, to, last, position);
+        return result >= 0 ? result : findLast(2 * segment, from, mid, last, position);
+    }
+
+    private int upperBound(long position) {
+        int low = 0, high = this.starts.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.starts[mid] <= position) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Packs a groovy line and column into a zero based position, like {@link net.prominic.groovyls.util.GroovyLSUtils#createGroovyPosition(int, int)}.
+     */
+    private static long pack(int line, int column) {
+        if (column < 0) {
+            column = 0;
+        } else if (column > 0) column--;
+        if (line > 0) line--;
+        return ((long) line << 32) | column;
+    }
+}
@@ -20,6 +20,7 @@
 package net.prominic.groovyls.compiler.control;
 
 import groovy.lang.GroovyClassLoader;
+import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import net.prominic.groovyls.compiler.ILanguageServerContext;
 import net.prominic.groovyls.compiler.ast.ASTNodeVisitor;
 import org.codehaus.groovy.ast.CompileUnit;
@@ -41,7 +42,9 @@ public class GroovyLSCompilationUnit extends CompilationUnit {
     private final ILanguageServerContext languageServerContext;
     private @Nullable ASTNodeVisitor visitor;
 
-    private @Nullable URI previousContext;
+    // sources which were added or removed since the last compilation
+    private Set<URI> changedSources = new ObjectOpenHashSet<>();
+    private Set<URI> compiledSources = Collections.emptySet();
 
     public GroovyLSCompilationUnit(
             CompilerConfiguration config,
@@ -70,6 +73,7 @@ public class GroovyLSCompilationUnit extends CompilationUnit {
                 generatedClasses.removeIf(groovyClass -> sourceUnitClassNames.contains(groovyClass.getName()));
             }
             sources.remove(sourceUnit.getName());
+            changedSources.add(sourceUnit.getSource().getURI());
         }
         // keep existing modules from other source units
         List<ModuleNode> modules = ast.getModules();
@@ -87,6 +91,19 @@ public class GroovyLSCompilationUnit extends CompilationUnit {
         removeSources(Collections.singletonList(sourceUnit));
     }
 
+    @Override
+    public SourceUnit addSource(SourceUnit source) {
+        changedSources.add(source.getSource().getURI());
+        return super.addSource(source);
+    }
+
+    /**
+     * @return the files which were added, changed or removed in the last compilation. Diagnostics of other files didn't change.
+     */
+    public Set<URI> getCompiledSources() {
+        return compiledSources;
+    }
+
     @Override
     public void compile() throws CompilationFailedException {
         // AST is completely built after the canonicalization phase
@@ -100,47 +117,29 @@ public class GroovyLSCompilationUnit extends CompilationUnit {
     }
 
     private ASTNodeVisitor visitAST(Set<URI> uris) {
-        if (visitor == null || uris.isEmpty()) {
+        if (visitor == null) {
             visitor = new ASTNodeVisitor();
             visitor.visitCompilationUnit(this);
         } else {
+            // only the changed files need to be visited again, the nodes of all other files are still valid
             visitor.visitCompilationUnit(this, uris);
         }
 
         return visitor;
     }
 
-    private ASTNodeVisitor compileAndVisitAST() {
-        previousContext = null;
-
-        compile();
-        return visitAST(Collections.emptySet());
-    }
-
-    private ASTNodeVisitor compileAndVisitAST(@Nullable URI context) {
-        if (context == null) {
-            return compileAndVisitAST();
-        }
-
-        previousContext = context;
-
-        compile();
-        return visitAST(Collections.singleton(context));
-    }
-
     public ASTNodeVisitor recompileAndVisitASTIfContextChanged(@Nullable URI context) {
-        var isChanged = context == null || languageServerContext.getFileContentsTracker().getChangedURIs().contains(context);
-
         languageServerContext.getFileContentsTracker().resetChangedFiles();
 
-        if ((previousContext == null || previousContext.equals(context)) && visitor != null && !isChanged) {
+        if (visitor != null && changedSources.isEmpty()) {
+            compiledSources = Collections.emptySet();
             return visitor;
         }
 
-        if (context != null) {
-            languageServerContext.getFileContentsTracker().forceChanged(context);
-        }
+        compiledSources = changedSources;
+        changedSources = new ObjectOpenHashSet<>();
 
-        return compileAndVisitAST(context);
+        compile();
+        return visitAST(compiledSources);
     }
 }
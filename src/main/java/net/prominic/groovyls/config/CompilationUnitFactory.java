@@ -20,13 +20,16 @@
 package net.prominic.groovyls.config;
 
 import com.cleanroommc.groovyscript.GroovyScript;
+import com.cleanroommc.groovyscript.sandbox.FileUtil;
+import it.unimi.dsi.fastutil.objects.ObjectLinkedOpenHashSet;
 import net.prominic.groovyls.compiler.ILanguageServerContext;
 import net.prominic.groovyls.compiler.control.GroovyLSCompilationUnit;
 import net.prominic.groovyls.util.FileContentsTracker;
 import org.codehaus.groovy.control.SourceUnit;
+import org.eclipse.lsp4j.FileChangeType;
+import org.eclipse.lsp4j.FileEvent;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.File;
 import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Files;
@@ -35,6 +38,7 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Stream;
 
 public class CompilationUnitFactory extends CompilationUnitFactoryBase {
 
@@ -42,6 +46,9 @@ public class CompilationUnitFactory extends CompilationUnitFactoryBase {
     private final ILanguageServerContext languageServerContext;
 
     protected GroovyLSCompilationUnit compilationUnit;
+    // groovy files in the workspace, kept up to date with watched file events
+    private Set<Path> workspaceFiles;
+    private Path indexedRoot;
 
     public CompilationUnitFactory(ILanguageServerContext languageServerContext) {
         this.languageServerContext = languageServerContext;
@@ -51,6 +58,25 @@ public class CompilationUnitFactory extends CompilationUnitFactoryBase {
     public void invalidateCompilationUnit() {
         super.invalidateCompilationUnit();
         compilationUnit = null;
+        workspaceFiles = null;
+    }
+
+    @Override
+    public void didChangeWatchedFiles(List<FileEvent> changes) {
+        if (workspaceFiles == null) return;
+        for (FileEvent event : changes) {
+            Path path = Paths.get(FileUtil.fixUri(event.getUri()));
+            if (event.getType() == FileChangeType.Deleted) {
+                // a deleted directory removes all files in it
+                workspaceFiles.removeIf(file -> file.startsWith(path));
+            } else if (event.getType() == FileChangeType.Created) {
+                if (path.toString().endsWith(FILE_EXTENSION_GROOVY) && Files.isRegularFile(path)) {
+                    workspaceFiles.add(path);
+                } else if (Files.isDirectory(path)) {
+                    workspaceFiles.addAll(walkGroovyFiles(path));
+                }
+            }
+        }
     }
 
     public GroovyLSCompilationUnit create(Path workspaceRoot, @Nullable URI context) {
@@ -109,26 +135,11 @@ public class CompilationUnitFactory extends CompilationUnitFactoryBase {
                                                  GroovyLSCompilationUnit compilationUnit,
                                                  FileContentsTracker fileContentsTracker,
                                                  Set<URI> changedUris) {
-        try {
-            if (Files.exists(dirPath)) {
-                Files.walk(dirPath).forEach((filePath) -> {
-                    if (!filePath.toString().endsWith(FILE_EXTENSION_GROOVY)) {
-                        return;
-                    }
-                    URI fileURI = filePath.toUri();
-                    if (!fileContentsTracker.isOpen(fileURI)) {
-                        File file = filePath.toFile();
-                        if (file.isFile()) {
-                            if (changedUris == null || changedUris.contains(fileURI)) {
-                                compilationUnit.addSource(file);
-                            }
-                        }
-                    }
-                });
+        for (Path filePath : getWorkspaceFiles(dirPath)) {
+            URI fileURI = filePath.toUri();
+            if (!fileContentsTracker.isOpen(fileURI) && (changedUris == null || changedUris.contains(fileURI))) {
+                compilationUnit.addSource(filePath.toFile());
             }
-
-        } catch (IOException e) {
-            GroovyScript.LOGGER.error("Failed to walk directory for source files: {}", dirPath);
         }
         fileContentsTracker.getOpenURIs().forEach(uri -> {
             Path openPath = Paths.get(uri);
@@ -142,4 +153,25 @@ public class CompilationUnitFactory extends CompilationUnitFactoryBase {
             addOpenFileToCompilationUnit(uri, contents, compilationUnit);
         });
     }
+
+    private Set<Path> getWorkspaceFiles(Path dirPath) {
+        if (workspaceFiles != null && watchingFiles && dirPath.equals(indexedRoot)) {
+            return workspaceFiles;
+        }
+        // without file events the workspace can change at any time, so it is walked again
+        workspaceFiles = walkGroovyFiles(dirPath);
+        indexedRoot = dirPath;
+        return workspaceFiles;
+    }
+
+    private static Set<Path> walkGroovyFiles(Path dirPath) {
+        Set<Path> files = new ObjectLinkedOpenHashSet<>();
+        if (!Files.exists(dirPath)) return files;
+        try (Stream<Path> stream = Files.walk(dirPath)) {
+            stream.filter(path -> path.toString().endsWith(FILE_EXTENSION_GROOVY) && Files.isRegularFile(path)).forEach(files::add);
+        } catch (IOException e) {
+            GroovyScript.LOGGER.error("Failed to walk directory for source files: {}", dirPath);
+        }
+        return files;
+    }
 }
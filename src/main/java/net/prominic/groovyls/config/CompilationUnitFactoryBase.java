@@ -5,6 +5,7 @@ import net.prominic.groovyls.compiler.control.GroovyLSCompilationUnit;
 import net.prominic.groovyls.compiler.control.StringReaderSourceWithURI;
 import org.codehaus.groovy.control.CompilerConfiguration;
 import org.codehaus.groovy.control.SourceUnit;
+import org.eclipse.lsp4j.FileEvent;
 
 import java.io.File;
 import java.net.URI;
@@ -20,6 +21,7 @@ public abstract class CompilationUnitFactoryBase implements ICompilationUnitFact
     protected CompilerConfiguration config;
     protected GroovyClassLoader classLoader;
     protected List<String> additionalClasspathList;
+    protected volatile boolean watchingFiles;
 
     public List<String> getAdditionalClasspathList() {
         return additionalClasspathList;
@@ -30,6 +32,12 @@ public abstract class CompilationUnitFactoryBase implements ICompilationUnitFact
         invalidateCompilationUnit();
     }
 
+    public void setWatchingFiles(boolean watchingFiles) {
+        this.watchingFiles = watchingFiles;
+    }
+
+    public void didChangeWatchedFiles(List<FileEvent> changes) {}
+
     public void invalidateCompilationUnit() {
         config = null;
         classLoader = null;
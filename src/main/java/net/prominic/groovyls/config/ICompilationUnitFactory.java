@@ -20,6 +20,7 @@
 package net.prominic.groovyls.config;
 
 import net.prominic.groovyls.compiler.control.GroovyLSCompilationUnit;
+import org.eclipse.lsp4j.FileEvent;
 import org.jetbrains.annotations.Nullable;
 
 import java.net.URI;
@@ -37,6 +38,16 @@ public interface ICompilationUnitFactory {
 
     void setAdditionalClasspathList(List<String> classpathList);
 
+    /**
+     * Sets if the client reports created and deleted files. Only then the files of the workspace can be cached.
+     */
+    void setWatchingFiles(boolean watchingFiles);
+
+    /**
+     * Called when files in the workspace were created, changed or deleted outside the editor.
+     */
+    void didChangeWatchedFiles(List<FileEvent> changes);
+
     /**
      * Returns a compilation unit.
      */
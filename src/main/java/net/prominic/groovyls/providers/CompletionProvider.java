@@ -31,6 +31,7 @@ import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import net.prominic.groovyls.compiler.ast.ASTContext;
 import net.prominic.groovyls.compiler.util.GroovyASTUtils;
 import net.prominic.groovyls.compiler.util.GroovyReflectionUtils;
+import net.prominic.groovyls.util.ClassIndex;
 import net.prominic.groovyls.util.CompletionItemFactory;
 import net.prominic.groovyls.util.GroovyLSUtils;
 import org.codehaus.groovy.ast.*;
@@ -246,26 +247,19 @@ public class CompletionProvider extends DocProvider {
         });
 
         // scan packages
-        items.addAll(astContext.getLanguageServerContext().getScanResult().getPackageInfo(), p -> {
-            String packageName = p.getName();
-            if (!packageName.startsWith(importText)) return null;
-            CompletionItem item = CompletionItemFactory.createCompletion(CompletionItemKind.Module, p.getName());
-            item.setTextEdit(Either.forLeft(new TextEdit(importRange, p.getName())));
+        items.addAll(astContext.getLanguageServerContext().getClassIndex().getPackages(importText), packageName -> {
+            CompletionItem item = CompletionItemFactory.createCompletion(CompletionItemKind.Module, packageName);
+            item.setTextEdit(Either.forLeft(new TextEdit(importRange, packageName)));
             return item;
         });
 
         // scan all classes
-        items.addAll(astContext.getLanguageServerContext().getScanResult().getAllClasses(), c -> {
+        items.addAll(astContext.getLanguageServerContext().getClassIndex().getClassesByAnyName(importText), c -> {
             String packageName = c.getPackageName();
-            if (packageName == null || packageName.isEmpty() || packageName.equals(enclosingPackageName)) {
-                return null;
-            }
-            String className = c.getName();
-            String classNameWithoutPackage = c.getSimpleName();
-            if (!className.startsWith(importText) && !classNameWithoutPackage.startsWith(importText)) {
+            if (packageName.isEmpty() || packageName.equals(enclosingPackageName)) {
                 return null;
             }
-            CompletionItem item = CompletionItemFactory.createCompletion(classInfoToCompletionItemKind(c), c.getName());
+            CompletionItem item = CompletionItemFactory.createCompletion(classEntryToCompletionItemKind(c), c.getName());
             item.setTextEdit(Either.forLeft(new TextEdit(importRange, c.getName())));
             if (c.getSimpleName().startsWith(importText)) {
                 item.setSortText(c.getSimpleName());
@@ -639,22 +633,21 @@ public class CompletionProvider extends DocProvider {
             return item;
         });
 
-        items.addAll(astContext.getLanguageServerContext().getScanResult().getAllClasses(), classInfo -> {
-            if (!includeEnums && classInfo.isEnum()) return null;
-            if (!includeInterfaces && classInfo.isInterface()) return null;
-            if (!includeClasses && (!classInfo.isInterface() && !classInfo.isEnum())) return null;
-            String className = classInfo.getName();
-            String classNameWithoutPackage = classInfo.getSimpleName();
-            if (!classNameWithoutPackage.startsWith(namePrefix) || existingNames.contains(className)) return null;
+        items.addAll(astContext.getLanguageServerContext().getClassIndex().getClassesBySimpleName(namePrefix), classEntry -> {
+            if (!includeEnums && classEntry.isEnum()) return null;
+            if (!includeInterfaces && classEntry.isInterface()) return null;
+            if (!includeClasses && (!classEntry.isInterface() && !classEntry.isEnum())) return null;
+            String className = classEntry.getName();
+            if (existingNames.contains(className)) return null;
             existingNames.add(className);
-            String packageName = classInfo.getPackageName();
+            String packageName = classEntry.getPackageName();
             CompletionItem item = CompletionItemFactory.createCompletion(
-                    classInfoToCompletionItemKind(classInfo),
-                    classInfo.getSimpleName());
+                    classEntryToCompletionItemKind(classEntry),
+                    classEntry.getSimpleName());
             item.setDetail(packageName);
             boolean hasImport = GroovyLSUtils.hasImport(enclosingModule, className);
             // sort imported classes higher
-            if (hasImport) item.setSortText("aa" + classInfo.getSimpleName());
+            if (hasImport) item.setSortText("aa" + classEntry.getSimpleName());
             if (packageName != null && !packageName.equals(enclosingPackageName) && !GroovyLSUtils.hasImport(enclosingModule, className)) {
                 List<TextEdit> additionalTextEdits = new ArrayList<>();
                 TextEdit addImportEdit = createAddImportTextEdit(className, addImportRange);
@@ -675,11 +668,11 @@ public class CompletionProvider extends DocProvider {
         return "";
     }
 
-    private CompletionItemKind classInfoToCompletionItemKind(ClassInfo classInfo) {
-        if (classInfo.isInterface()) {
+    private CompletionItemKind classEntryToCompletionItemKind(ClassIndex.Entry classEntry) {
+        if (classEntry.isInterface()) {
             return CompletionItemKind.Interface;
         }
-        if (classInfo.isEnum()) {
+        if (classEntry.isEnum()) {
             return CompletionItemKind.Enum;
         }
         return CompletionItemKind.Class;
@@ -0,0 +1,260 @@
+package net.prominic.groovyls.util;
+
+import io.github.classgraph.ClassInfo;
+import io.github.classgraph.PackageInfo;
+import io.github.classgraph.ScanResult;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The names of all classes and packages on the class path, sorted so that all names with a prefix are a range which is found with a
+ * binary search. Classes are sorted by their full name and by their simple name.
+ * <p>
+ * The index is saved in a compact form, where each name only stores the part which differs from the previous name.
+ */
+public class ClassIndex {
+
+    private static final int MAGIC = 0x4753434C; // GSCL
+    private static final int FORMAT_VERSION = 1;
+
+    private static final byte KIND_CLASS = 0;
+    private static final byte KIND_INTERFACE = 1;
+    private static final byte KIND_ENUM = 2;
+
+    private final String[] names;
+    private final byte[] kinds;
+    // class indices sorted by simple name
+    private final int[] bySimpleName;
+    private final String[] simpleNames;
+    private final String[] packages;
+
+    private ClassIndex(String[] names, byte[] kinds, String[] packages) {
+        this.names = names;
+        this.kinds = kinds;
+        this.packages = packages;
+        this.simpleNames = new String[names.length];
+        for (int i = 0; i < names.length; i++) {
+            this.simpleNames[i] = getSimpleName(names[i]);
+        }
+        this.bySimpleName = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            this.bySimpleName[i] = i;
+        }
+        IntArrays.quickSort(this.bySimpleName, (a, b) -> {
+            int c = this.simpleNames[a].compareTo(this.simpleNames[b]);
+            return c != 0 ? c : Integer.compare(a, b);
+        });
+    }
+
+    public static ClassIndex of(ScanResult scanResult) {
+        List<ClassInfo> classes = new ArrayList<>(scanResult.getAllClasses());
+        classes.sort((a, b) -> a.getName().compareTo(b.getName()));
+        String[] names = new String[classes.size()];
+        byte[] kinds = new byte[classes.size()];
+        for (int i = 0; i < names.length; i++) {
+            ClassInfo classInfo = classes.get(i);
+            names[i] = classInfo.getName();
+            kinds[i] = classInfo.isInterface() ? KIND_INTERFACE : classInfo.isEnum() ? KIND_ENUM : KIND_CLASS;
+        }
+        String[] packages = scanResult.getPackageInfo().stream().map(PackageInfo::getName).sorted().toArray(String[]::new);
+        return new ClassIndex(names, kinds, packages);
+    }
+
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @return all packages which start with the prefix
+     */
+    public List<String> getPackages(String prefix) {
+        int start = lowerBound(packages, prefix);
+        int end = start;
+        while (end < packages.length && packages[end].startsWith(prefix)) end++;
+        return Arrays.asList(packages).subList(start, end);
+    }
+
+    /**
+     * @return all classes whose full name starts with the prefix
+     */
+    public List<Entry> getClassesByName(String prefix) {
+        int start = lowerBound(names, prefix);
+        int end = start;
+        while (end < names.length && names[end].startsWith(prefix)) end++;
+        return new Range(start, end, false);
+    }
+
+    /**
+     * @return all classes whose simple name starts with the prefix
+     */
+    public List<Entry> getClassesBySimpleName(String prefix) {
+        int low = 0, high = bySimpleName.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (simpleNames[bySimpleName[mid]].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = low;
+        while (end < bySimpleName.length && simpleNames[bySimpleName[end]].startsWith(prefix)) end++;
+        return new Range(low, end, true);
+    }
+
+    /**
+     * @return all classes whose full name or simple name starts with the prefix
+     */
+    public List<Entry> getClassesByAnyName(String prefix) {
+        List<Entry> result = new ArrayList<>(getClassesByName(prefix));
+        for (Entry entry : getClassesBySimpleName(prefix)) {
+            if (!entry.getName().startsWith(prefix)) {
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Reads the index from a file.
+     *
+     * @param file        the index file
+     * @param fingerprint the fingerprint of the class path the index must be built from
+     * @return the index or null if the file doesn't exist, is invalid or was built from another class path
+     */
+    public static @Nullable ClassIndex read(File file, String fingerprint) {
+        if (!file.exists()) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION || !in.readUTF().equals(fingerprint)) {
+                return null;
+            }
+            String[] names = readNames(in);
+            byte[] kinds = new byte[names.length];
+            in.readFully(kinds);
+            String[] packages = readNames(in);
+            return new ClassIndex(names, kinds, packages);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Writes the index to a file. The file is replaced atomically, so a language server which starts at the same time never reads a
+     * partial file.
+     */
+    public void write(File file, String fingerprint) throws IOException {
+        File tmp = new File(file.getPath() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp.toPath())))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeUTF(fingerprint);
+            writeNames(out, names);
+            out.write(kinds);
+            writeNames(out, packages);
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeNames(DataOutputStream out, String[] names) throws IOException {
+        out.writeInt(names.length);
+        String previous = "";
+        for (String name : names) {
+            int common = 0;
+            int max = Math.min(previous.length(), name.length());
+            while (common < max && previous.charAt(common) == name.charAt(common)) common++;
+            out.writeShort(common);
+            out.writeUTF(name.substring(common));
+            previous = name;
+        }
+    }
+
+    private static String[] readNames(DataInputStream in) throws IOException {
+        String[] names = new String[in.readInt()];
+        String previous = "";
+        for (int i = 0; i < names.length; i++) {
+            int common = in.readUnsignedShort();
+            previous = previous.substring(0, common) + in.readUTF();
+            names[i] = previous;
+        }
+        return names;
+    }
+
+    private static int lowerBound(String[] sorted, String prefix) {
+        int low = 0, high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static String getSimpleName(String name) {
+        return name.substring(Math.max(name.lastIndexOf('.'), name.lastIndexOf('$')) + 1);
+    }
+
+    private class Range extends AbstractList<Entry> {
+
+        private final int start;
+        private final int end;
+        private final boolean bySimpleName;
+
+        private Range(int start, int end, boolean bySimpleName) {
+            this.start = start;
+            this.end = end;
+            this.bySimpleName = bySimpleName;
+        }
+
+        @Override
+        public Entry get(int index) {
+            int i = start + index;
+            return new Entry(this.bySimpleName ? ClassIndex.this.bySimpleName[i] : i);
+        }
+
+        @Override
+        public int size() {
+            return end - start;
+        }
+    }
+
+    public class Entry {
+
+        private final int index;
+
+        private Entry(int index) {
+            this.index = index;
+        }
+
+        public String getName() {
+            return names[index];
+        }
+
+        public String getSimpleName() {
+            return simpleNames[index];
+        }
+
+        public String getPackageName() {
+            int i = names[index].lastIndexOf('.');
+            return i < 0 ? "" : names[index].substring(0, i);
+        }
+
+        public boolean isInterface() {
+            return kinds[index] == KIND_INTERFACE;
+        }
+
+        public boolean isEnum() {
+            return kinds[index] == KIND_ENUM;
+        }
+    }
+}
@@ -24,17 +24,20 @@ import it.unimi.dsi.fastutil.objects.Object2ObjectOpenHashMap;
 import it.unimi.dsi.fastutil.objects.ObjectOpenHashSet;
 import org.eclipse.lsp4j.*;
 
-import java.io.BufferedReader;
 import java.io.IOException;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Map;
 import java.util.Set;
 
 public class FileContentsTracker {
 
-    private final Map<URI, String> openFiles = new Object2ObjectOpenHashMap<>();
+    private final Map<URI, TextDocument> openFiles = new Object2ObjectOpenHashMap<>();
+    // contents of files which are not open, until they change on disk
+    private final Map<URI, DiskFile> diskContents = new Object2ObjectOpenHashMap<>();
     private Set<URI> changedFiles = new ObjectOpenHashSet<>();
 
     public Set<URI> getOpenURIs() {
@@ -59,21 +62,21 @@ public class FileContentsTracker {
 
     public void didOpen(DidOpenTextDocumentParams params) {
         URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-        openFiles.put(uri, params.getTextDocument().getText());
+        openFiles.put(uri, new TextDocument(params.getTextDocument().getText()));
         changedFiles.add(uri);
     }
 
     public void didChange(DidChangeTextDocumentParams params) {
         URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
-        String oldText = openFiles.get(uri);
-        TextDocumentContentChangeEvent change = params.getContentChanges().get(0);
-        Range range = change.getRange();
-        if (range == null) {
-            openFiles.put(uri, change.getText());
-        } else {
-            int offsetStart = Positions.getOffset(oldText, change.getRange().getStart());
-            int offsetEnd = Positions.getOffset(oldText, change.getRange().getEnd());
-            openFiles.put(uri, oldText.substring(0, offsetStart) + change.getText() + oldText.substring(offsetEnd));
+        TextDocument document = openFiles.get(uri);
+        for (TextDocumentContentChangeEvent change : params.getContentChanges()) {
+            if (document == null) {
+                // the editor should always send the full text for files which are not open
+                document = new TextDocument(change.getRange() == null ? change.getText() : getContents(uri));
+                openFiles.put(uri, document);
+                if (change.getRange() == null) continue;
+            }
+            document.applyChange(change.getRange(), change.getText());
         }
         changedFiles.add(uri);
     }
@@ -81,26 +84,77 @@ public class FileContentsTracker {
     public void didClose(DidCloseTextDocumentParams params) {
         URI uri = FileUtil.fixUri(params.getTextDocument().getUri());
         openFiles.remove(uri);
+        // the file might have been closed without saving
+        diskContents.remove(uri);
         changedFiles.add(uri);
     }
 
+    /**
+     * Called when files were modified outside the editor.
+     */
+    public void didChangeWatchedFiles(DidChangeWatchedFilesParams params) {
+        for (FileEvent event : params.getChanges()) {
+            URI uri = FileUtil.fixUri(event.getUri());
+            diskContents.remove(uri);
+            changedFiles.add(uri);
+        }
+    }
+
     public String getContents(URI uri) {
-        if (!openFiles.containsKey(uri)) {
-            try (BufferedReader reader = Files.newBufferedReader(Paths.get(uri))) {
-                StringBuilder builder = new StringBuilder();
-                int next;
-                while ((next = reader.read()) != -1) {
-                    builder.append((char) next);
-                }
-                return builder.toString();
-            } catch (IOException e) {
-                return "";
-            }
+        TextDocument document = openFiles.get(uri);
+        if (document != null) {
+            return document.getText();
         }
-        return openFiles.getOrDefault(uri, "");
+        Path path = Paths.get(uri);
+        long lastModified = getLastModified(path);
+        DiskFile file = diskContents.get(uri);
+        // the client might not report all changes, so the cache is checked against the modification time
+        if (file == null || file.lastModified != lastModified) {
+            file = new DiskFile(lastModified, readFile(path));
+            diskContents.put(uri, file);
+        }
+        return file.contents;
+    }
+
+    /**
+     * Converts a position in a file to an offset in its contents.
+     */
+    public int getOffset(URI uri, Position position) {
+        TextDocument document = openFiles.get(uri);
+        if (document != null) {
+            return document.getOffset(position);
+        }
+        return Positions.getOffset(getContents(uri), position);
     }
 
     public void setContents(URI uri, String contents) {
-        openFiles.put(uri, contents);
+        openFiles.put(uri, new TextDocument(contents));
+    }
+
+    private static long getLastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    private static String readFile(Path path) {
+        try {
+            return new String(Files.readAllBytes(path), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            return "";
+        }
+    }
+
+    private static class DiskFile {
+
+        private final long lastModified;
+        private final String contents;
+
+        private DiskFile(long lastModified, String contents) {
+            this.lastModified = lastModified;
+            this.contents = contents;
+        }
     }
 }
@@ -21,9 +21,6 @@ package net.prominic.groovyls.util;
 
 import org.eclipse.lsp4j.Position;
 
-import java.io.BufferedReader;
-import java.io.IOException;
-import java.io.StringReader;
 import java.util.Comparator;
 
 public class Positions {
@@ -40,34 +37,13 @@ public class Positions {
     }
 
     public static int getOffset(String string, Position position) {
-        int line = position.getLine();
-        int character = position.getCharacter();
         int currentIndex = 0;
-        if (line > 0) {
-            BufferedReader reader = new BufferedReader(new StringReader(string));
-            try {
-                int readLines = 0;
-                while (true) {
-                    char currentChar = (char) reader.read();
-                    if (currentChar == -1) {
-                        return -1;
-                    }
-                    currentIndex++;
-                    if (currentChar == '\n') {
-                        readLines++;
-                        if (readLines == line) {
-                            break;
-                        }
-                    }
-                }
-            } catch (IOException e) {
+        for (int line = position.getLine(); line > 0; line--) {
+            currentIndex = string.indexOf('\n', currentIndex) + 1;
+            if (currentIndex == 0) {
                 return -1;
             }
-            try {
-                reader.close();
-            } catch (IOException e) {
-            }
         }
-        return currentIndex + character;
+        return currentIndex + position.getCharacter();
     }
 }
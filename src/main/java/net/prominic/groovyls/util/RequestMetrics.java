@@ -0,0 +1,96 @@
+package net.prominic.groovyls.util;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency of language server requests by request type. The wait time is the time a request spent in the queue before it started.
+ */
+public class RequestMetrics {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public void record(String type, long waitNanos, long runNanos) {
+        this.entries.computeIfAbsent(type, Entry::new).record(waitNanos, runNanos);
+    }
+
+    public void recordCancelled(String type) {
+        this.entries.computeIfAbsent(type, Entry::new).cancelled.increment();
+    }
+
+    public List<Entry> getEntries() {
+        List<Entry> list = new ArrayList<>(this.entries.values());
+        list.sort(Comparator.comparingLong(Entry::getTotalNanos).reversed());
+        return list;
+    }
+
+    public List<String> summarize() {
+        List<String> lines = new ArrayList<>();
+        for (Entry entry : getEntries()) {
+            lines.add(String.format("%s: %d done, %d cancelled, %.1fms avg, %.1fms max, %.1fms avg wait",
+                                    entry.type,
+                                    entry.getCount(),
+                                    entry.getCancelled(),
+                                    entry.getAverageNanos() / 1_000_000.0,
+                                    entry.getMaxNanos() / 1_000_000.0,
+                                    entry.getAverageWaitNanos() / 1_000_000.0));
+        }
+        return lines;
+    }
+
+    public static class Entry {
+
+        private final String type;
+        private final LongAdder count = new LongAdder();
+        private final LongAdder cancelled = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Entry(String type) {
+            this.type = type;
+        }
+
+        private void record(long waitNanos, long runNanos) {
+            this.count.increment();
+            this.totalNanos.add(runNanos);
+            this.totalWaitNanos.add(waitNanos);
+            this.maxNanos.accumulateAndGet(runNanos, Math::max);
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getCancelled() {
+            return cancelled.sum();
+        }
+
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        public long getAverageNanos() {
+            long count = getCount();
+            return count == 0 ? 0 : getTotalNanos() / count;
+        }
+
+        public long getAverageWaitNanos() {
+            long count = getCount();
+            return count == 0 ? 0 : totalWaitNanos.sum() / count;
+        }
+    }
+}
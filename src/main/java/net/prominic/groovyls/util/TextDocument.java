@@ -0,0 +1,108 @@
+package net.prominic.groovyls.util;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.Range;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * The text of a file which is open in the editor. Keeps the offset of each line start, so positions are converted to offsets without
+ * scanning the text. Edits patch the text and the line index in place.
+ */
+public class TextDocument {
+
+    private final StringBuilder text;
+    private final IntArrayList lineStarts = new IntArrayList();
+    private String cachedText;
+
+    public TextDocument(String text) {
+        this.text = new StringBuilder(text);
+        this.cachedText = text;
+        this.lineStarts.add(0);
+        addLineStarts(text, 0, this.lineStarts.size());
+    }
+
+    /**
+     * Replaces the text in the range. If the range is null the whole text is replaced.
+     */
+    public void applyChange(@Nullable Range range, String newText) {
+        if (range == null) {
+            this.text.setLength(0);
+            this.text.append(newText);
+            this.lineStarts.clear();
+            this.lineStarts.add(0);
+            addLineStarts(newText, 0, 1);
+            this.cachedText = newText;
+            return;
+        }
+        int start = getOffset(range.getStart());
+        int end = Math.max(start, getOffset(range.getEnd()));
+        this.text.replace(start, end, newText);
+        this.cachedText = null;
+        // line starts inside the replaced range are gone
+        int from = firstLineStartAfter(start);
+        int to = firstLineStartAfter(end);
+        this.lineStarts.removeElements(from, to);
+        int inserted = addLineStarts(newText, start, from);
+        int delta = newText.length() - (end - start);
+        for (int i = from + inserted, n = this.lineStarts.size(); i < n; i++) {
+            this.lineStarts.set(i, this.lineStarts.getInt(i) + delta);
+        }
+    }
+
+    /**
+     * Converts a position to an offset. Characters past the end of a line are clamped to the end of the line and lines past the end of the
+     * document are clamped to the end of the document.
+     */
+    public int getOffset(Position position) {
+        int line = position.getLine();
+        if (line < 0) return 0;
+        if (line >= this.lineStarts.size()) return this.text.length();
+        int lineStart = this.lineStarts.getInt(line);
+        int lineEnd = line + 1 < this.lineStarts.size() ? this.lineStarts.getInt(line + 1) - 1 : this.text.length();
+        return lineStart + Math.max(0, Math.min(position.getCharacter(), lineEnd - lineStart));
+    }
+
+    public int getLineCount() {
+        return this.lineStarts.size();
+    }
+
+    public int length() {
+        return this.text.length();
+    }
+
+    public String getText() {
+        if (this.cachedText == null) {
+            this.cachedText = this.text.toString();
+        }
+        return this.cachedText;
+    }
+
+    @Override
+    public String toString() {
+        return getText();
+    }
+
+    private int firstLineStartAfter(int offset) {
+        // the first line always starts at 0, so the search never returns 0
+        int low = 1, high = this.lineStarts.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (this.lineStarts.getInt(mid) <= offset) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int addLineStarts(String text, int offset, int index) {
+        IntArrayList starts = new IntArrayList();
+        for (int i = text.indexOf('\n'); i >= 0; i = text.indexOf('\n', i + 1)) {
+            starts.add(offset + i + 1);
+        }
+        this.lineStarts.addElements(index, starts.elements(), 0, starts.size());
+        return starts.size();
+    }
+}